@@ -1,11 +1,32 @@
 package championoftaste.api;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 public class AuthorizedUser {
 
     public static String getUsername() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Object principal = getPrincipal();
+
+        if (principal instanceof UserIdentity) {
+            return ((UserIdentity) principal).getUsername();
+        }
+
         return principal instanceof String ? (String) principal : null;
     }
+
+    /**
+     * Возвращает данные авторизованного пользователя, полученные из его токена.
+     *
+     * @return данные пользователя или null, если токен их не содержит (выдан до появления этих данных в токене)
+     */
+    public static UserIdentity getIdentity() {
+        Object principal = getPrincipal();
+        return principal instanceof UserIdentity ? (UserIdentity) principal : null;
+    }
+
+    private static Object getPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getPrincipal() : null;
+    }
 }
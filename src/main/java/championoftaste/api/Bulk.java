@@ -0,0 +1,73 @@
+package championoftaste.api;
+
+import championoftaste.api.response.BulkItemResponse;
+import championoftaste.exception.DataIntegrityViolations;
+
+import com.google.common.collect.Lists;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Массовая обработка отправок с частичным успехом: отправка делится на части, каждая часть обрабатывается
+ * отдельной транзакцией, а итог возвращается по каждому элементу (сохранён, повтор, некорректен).
+ */
+public final class Bulk {
+
+    public static final int CHUNK_SIZE = 500;   // количество элементов, обрабатываемых одной транзакцией
+
+    private Bulk() {
+    }
+
+    /**
+     * Обрабатывает отправку по частям. Если часть не удалось сохранить из-за одновременной записи тех же
+     * элементов другим запросом (нарушение указанного ограничения уникальности), часть обрабатывается повторно:
+     * повторная проверка отметит такие элементы как повторы. Если часть не удалось сохранить из-за нарушения
+     * другого ограничения (например, продукт удалён во время записи), все её элементы отмечаются как некорректные.
+     *
+     * @param items            элементы отправки
+     * @param uniqueConstraint название ограничения уникальности элементов (null - повторы не проверяются)
+     * @param chunks           транзакционная функция, обрабатывающая часть отправки по её элементам и номеру
+     *                         первого элемента части в отправке
+     * @return итоги обработки элементов в порядке их следования в отправке
+     */
+    public static <T> List<BulkItemResponse> process(List<T> items,
+                                                     String uniqueConstraint,
+                                                     BiFunction<List<T>, Integer, List<BulkItemResponse>> chunks) {
+        List<BulkItemResponse> results = new ArrayList<>(items.size());
+        int offset = 0;
+
+        for (List<T> chunk : Lists.partition(items, CHUNK_SIZE)) {
+            results.addAll(processChunk(chunk, offset, uniqueConstraint, chunks, true));
+            offset += chunk.size();
+        }
+
+        return results;
+    }
+
+    private static <T> List<BulkItemResponse> processChunk(List<T> chunk,
+                                                           int offset,
+                                                           String uniqueConstraint,
+                                                           BiFunction<List<T>, Integer, List<BulkItemResponse>> chunks,
+                                                           boolean retry) {
+        try {
+            return chunks.apply(chunk, offset);
+        } catch (DataIntegrityViolationException e) {
+            if (retry && uniqueConstraint != null && DataIntegrityViolations.isViolated(e, uniqueConstraint)) {
+                return processChunk(chunk, offset, uniqueConstraint, chunks, false);
+            }
+
+            // Часть сохраняется одной транзакцией, поэтому неизвестно, какой именно элемент нарушил ограничение.
+            List<BulkItemResponse> chunkResults = new ArrayList<>(chunk.size());
+
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.add(BulkItemResponse.invalid(offset + i, "Не удалось сохранить часть отправки"));
+            }
+
+            return chunkResults;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package championoftaste.api;
+
+/**
+ * Итоги обработки одного элемента массовой отправки (оценки или комментария).
+ */
+public enum BulkItemStatus {
+    CREATED,    // элемент сохранён
+    DUPLICATE,  // элемент уже был сохранён ранее или повторяется в отправке
+    INVALID     // элемент заполнен некорректно (например, не указан или не найден продукт)
+}
@@ -0,0 +1,137 @@
+package championoftaste.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Постраничная выдача списков по курсору (keyset pagination): следующая страница начинается после id последнего
+ * элемента предыдущей, поэтому запрос страницы не зависит от её номера и не пересчитывает пропущенные строки.
+ */
+public final class Keyset {
+
+    public static final String DEFAULT_SIZE = "100";            // размер страницы по умолчанию
+    public static final int MAX_SIZE = 1000;                    // максимальный размер страницы
+    public static final String NEXT_HEADER = "X-Next-After-Id"; // хедер с курсором следующей страницы
+
+    private Keyset() {
+    }
+
+    /**
+     * Возвращает курсор запроса страницы.
+     *
+     * @param afterId id, после которого начинается страница (null - с начала списка)
+     * @return курсор для условия "id > курсор"
+     */
+    public static Integer cursor(Integer afterId) {
+        return afterId != null ? afterId : 0;
+    }
+
+    /**
+     * Возвращает ограничение на количество строк страницы (размер приводится к диапазону от 1 до MAX_SIZE).
+     *
+     * @param size запрошенный размер страницы
+     * @return ограничение для запроса к репозиторию
+     */
+    public static Pageable page(int size) {
+        return PageRequest.of(0, limit(size));
+    }
+
+    /**
+     * Формирует ответ со страницей списка. Если страница заполнена целиком, в хедер NEXT_HEADER записывается
+     * курсор следующей страницы.
+     *
+     * @param items страница списка
+     * @param size  запрошенный размер страницы
+     * @param id    функция, возвращающая id элемента
+     * @return ответ со страницей (404 - страница пуста)
+     */
+    public static <T> ResponseEntity<List<T>> response(List<T> items, int size, Function<T, Integer> id) {
+        if (items == null || items.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return items.size() < limit(size)
+                ? ResponseEntity.ok(items)
+                : ResponseEntity.ok()
+                        .header(NEXT_HEADER, String.valueOf(id.apply(items.get(items.size() - 1))))
+                        .body(items);
+    }
+
+    /**
+     * Выгружает весь список в виде JSON-массива, читая его страницами максимального размера, поэтому в памяти
+     * одновременно находится не больше одной страницы.
+     *
+     * @param objectMapper сериализатор JSON
+     * @param pages        функция, возвращающая страницу по курсору и размеру
+     * @param id           функция, возвращающая id элемента
+     * @return тело ответа, записываемое по мере чтения страниц
+     */
+    public static <T> StreamingResponseBody export(ObjectMapper objectMapper,
+                                                   BiFunction<Integer, Integer, List<T>> pages,
+                                                   Function<T, Integer> id) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+
+                Integer afterId = null;
+                List<T> page;
+
+                do {
+                    page = pages.apply(afterId, MAX_SIZE);
+
+                    for (T item : page) {
+                        generator.writeObject(item);
+                    }
+
+                    if (!page.isEmpty()) {
+                        afterId = id.apply(page.get(page.size() - 1));
+                    }
+
+                    generator.flush();
+                } while (page.size() == MAX_SIZE);
+
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Читает весь список страницами максимального размера (для небольших списков, например справочников).
+     *
+     * @param pages функция, возвращающая страницу по курсору и размеру
+     * @param id    функция, возвращающая id элемента
+     * @return весь список
+     */
+    public static <T> List<T> readAll(BiFunction<Integer, Integer, List<T>> pages, Function<T, Integer> id) {
+        List<T> items = new ArrayList<>();
+
+        Integer afterId = null;
+        List<T> page;
+
+        do {
+            page = pages.apply(afterId, MAX_SIZE);
+            items.addAll(page);
+
+            if (!page.isEmpty()) {
+                afterId = id.apply(page.get(page.size() - 1));
+            }
+        } while (page.size() == MAX_SIZE);
+
+        return items;
+    }
+
+    private static int limit(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
@@ -0,0 +1,10 @@
+package championoftaste.api;
+
+/**
+ * Состояния отправки оценок, принятой на асинхронную запись.
+ */
+public enum SubmissionStatus {
+    PENDING,    // отправка записана в журнал и ожидает записи в базу данных
+    ACCEPTED,   // оценки записаны в базу данных
+    REJECTED    // оценки отклонены (например, пользователь уже оценивал продукт)
+}
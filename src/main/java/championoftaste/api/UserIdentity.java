@@ -0,0 +1,28 @@
+package championoftaste.api;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.security.Principal;
+
+/**
+ * Класс, описывающий минимальные данные пользователя, необходимые при обработке его запросов
+ * (позволяет не загружать сущность пользователя целиком). Используется как principal авторизованного запроса.
+ */
+@Getter                 // создаёт дефолтные геттеры автоматически для каждого поля класса
+@AllArgsConstructor     // создает конструктор с 1 параметром для каждого поля класса
+@EqualsAndHashCode      // реализует следующие методы: equals(Object other) и hashCode()
+@ToString               // реализует метод toString()
+public class UserIdentity implements Principal {
+
+    private final Integer id;           // id пользователя
+    private final String username;      // имя пользователя (email или номер телефона)
+    private final UserRole role;        // роль пользователя
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
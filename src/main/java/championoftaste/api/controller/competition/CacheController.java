@@ -0,0 +1,34 @@
+package championoftaste.api.controller.competition;
+
+import championoftaste.api.response.CacheStatisticsResponse;
+import championoftaste.api.service.CacheService;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/caches")
+@PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class CacheController {
+
+    private final CacheService cacheService;
+
+    @GetMapping()
+    public ResponseEntity<List<CacheStatisticsResponse>> readStatistics() {
+        return new ResponseEntity<>(cacheService.readStatistics(), HttpStatus.OK);
+    }
+
+    @DeleteMapping()
+    public ResponseEntity<?> clear() {
+        cacheService.clear();
+
+        return new ResponseEntity<>("Кеши успешно очищены", HttpStatus.OK);
+    }
+}
@@ -0,0 +1,130 @@
+package championoftaste.api.controller.competition;
+
+import championoftaste.api.service.CatalogService;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping(path = "/catalog")
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class CatalogController {
+
+    private final CatalogService catalogService;
+
+    /**
+     * Отдаёт готовый снимок справочника конкурса. Если у клиента уже есть актуальная версия (хедер If-None-Match
+     * совпадает с ETag любого из вариантов снимка), возвращается 304 без тела, иначе - JSON (сжатый gzip, если
+     * клиент его принимает). У сжатого и несжатого вариантов разные ETag, так как различаются их байты.
+     */
+    @GetMapping()
+    @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT', 'ROLE_ADMIN')")
+    public ResponseEntity<byte[]> read(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                               String acceptEncoding,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        final CatalogService.Snapshot snapshot = catalogService.read();
+        final boolean gzip = acceptsGzip(acceptEncoding);
+        final String etag = gzip ? snapshot.getGzipEtag() : snapshot.getEtag();
+
+        if (matches(ifNoneMatch, snapshot.getEtag(), snapshot.getGzipEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        return gzip
+                ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip())
+                : response.body(snapshot.getJson());
+    }
+
+    /**
+     * Проверяет, совпадает ли хедер If-None-Match с одним из ETag (слабое сравнение, как требует If-None-Match).
+     *
+     * @param ifNoneMatch значение хедера If-None-Match
+     * @param etags       ETag текущей версии (в кавычках)
+     * @return true - у клиента актуальная версия, иначе false
+     */
+    private static boolean matches(String ifNoneMatch, String... etags) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String element : ifNoneMatch.split(",")) {
+            String tag = element.trim();
+
+            if (tag.equals("*")) {
+                return true;
+            }
+
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+
+            for (String etag : etags) {
+                if (tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Проверяет, принимает ли клиент gzip: кодировка gzip (или *, если gzip не указан) перечислена в хедере
+     * Accept-Encoding с ненулевым весом (q=0 означает, что кодировка неприемлема).
+     *
+     * @param acceptEncoding значение хедера Accept-Encoding
+     * @return true - клиент принимает gzip, иначе false
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        boolean wildcard = false;
+
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;    // некорректный вес считаем запретом кодировки
+                    }
+                }
+            }
+
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return quality > 0;
+            }
+
+            if (coding.equals("*")) {
+                wildcard = quality > 0;
+            }
+        }
+
+        return wildcard;
+    }
+}
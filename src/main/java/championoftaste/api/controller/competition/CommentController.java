@@ -1,16 +1,24 @@
 package championoftaste.api.controller.competition;
 
+import championoftaste.api.Bulk;
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Comment;
 import championoftaste.api.request.CommentRequest;
+import championoftaste.api.response.CommentResponse;
 import championoftaste.api.service.CommentService;
+import championoftaste.api.service.IdempotencyService;
 import championoftaste.exception.ApiRequestException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import lombok.AllArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,27 +28,54 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ROLE_CONSUMER')")
-    public ResponseEntity<?> createAll(@RequestBody List<CommentRequest> commentRequests) {
-        try {
-            commentService.create(commentRequests);
-        } catch (ApiRequestException e) {
-            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-        }
-
-        return new ResponseEntity<>("Комментарии успешно добавлены", HttpStatus.CREATED);
+    public ResponseEntity<?> createAll(
+            @RequestBody List<CommentRequest> commentRequests,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("/comments", idempotencyKey, commentRequests, () -> {
+            try {
+                commentService.create(commentRequests);
+            } catch (ApiRequestException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+
+            return new ResponseEntity<>("Комментарии успешно добавлены", HttpStatus.CREATED);
+        });
+    }
+
+    /**
+     * Сохраняет комментарии с частичным успехом: корректные элементы сохраняются, а итог (CREATED, DUPLICATE, INVALID)
+     * возвращается по каждому элементу отправки.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ROLE_CONSUMER')")
+    public ResponseEntity<?> createEach(
+            @RequestBody List<CommentRequest> commentRequests,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("/comments/bulk", idempotencyKey, commentRequests, () -> {
+            try {
+                // Повторы комментариев проверяются только запросом: ограничения уникальности в базе данных нет.
+                return new ResponseEntity<>(
+                        Bulk.process(commentRequests, null, commentService::createEach),
+                        HttpStatus.OK
+                );
+            } catch (ApiRequestException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
     }
 
     @GetMapping()
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
-    public ResponseEntity<List<Comment>> read() {
-        final List<Comment> comments = commentService.readAll();
+    public ResponseEntity<List<CommentResponse>> read(@RequestParam(required = false) Integer afterId,
+                                                      @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<CommentResponse> comments = commentService.readAllResponses(afterId, size);
 
-        return (comments != null && !comments.isEmpty())
-                ? new ResponseEntity<>(comments, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(comments, size, CommentResponse::getId);
     }
 
     @GetMapping("/{commentId}")
@@ -52,4 +87,12 @@ public class CommentController {
                 ? new ResponseEntity<>(comment, HttpStatus.OK)
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Keyset.export(objectMapper, commentService::readAllResponses, CommentResponse::getId));
+    }
 }
@@ -1,6 +1,8 @@
 package championoftaste.api.controller.competition;
 
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Disadvantage;
+import championoftaste.api.response.DisadvantageResponse;
 import championoftaste.api.service.DisadvantageService;
 import championoftaste.exception.ApiRequestException;
 
@@ -33,12 +35,11 @@ public class DisadvantageController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<Disadvantage>> read() {
-        final List<Disadvantage> disadvantages = disadvantageService.readAll();
+    public ResponseEntity<List<DisadvantageResponse>> read(@RequestParam(required = false) Integer afterId,
+                                                           @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<DisadvantageResponse> disadvantages = disadvantageService.readAllResponses(afterId, size);
 
-        return (disadvantages != null && !disadvantages.isEmpty())
-                ? new ResponseEntity<>(disadvantages, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(disadvantages, size, DisadvantageResponse::getId);
     }
 
     @GetMapping("/{disadvantageId}")
@@ -1,18 +1,41 @@
 package championoftaste.api.controller.competition;
 
-import championoftaste.api.AuthorizedUser;
+import championoftaste.api.Keyset;
+import championoftaste.api.UserIdentity;
 import championoftaste.api.model.*;
+import championoftaste.api.response.CompositeResult;
+import championoftaste.api.response.DisadvantageResponse;
+import championoftaste.api.response.NominationResponse;
+import championoftaste.api.response.ParameterResponse;
+import championoftaste.api.response.ProductResponse;
+import championoftaste.api.response.ProductResult;
+import championoftaste.api.service.CompositeScoringService;
+import championoftaste.api.service.DisadvantageService;
+import championoftaste.api.service.LeaderboardService;
+import championoftaste.api.service.NominationResultsService;
 import championoftaste.api.service.NominationService;
+import championoftaste.api.service.NominationVoterService;
+import championoftaste.api.service.ParameterScoreService;
+import championoftaste.api.service.ParameterService;
+import championoftaste.api.service.ProductService;
+import championoftaste.api.service.RankingService;
+import championoftaste.api.service.ScoreIngestionService;
+import championoftaste.api.service.ScoreStatisticsService;
 import championoftaste.api.service.UserService;
+import championoftaste.api.service.VoterSketchService;
 import championoftaste.exception.ApiRequestException;
 
 import lombok.AllArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -22,6 +45,18 @@ public class NominationController {
 
     private final NominationService nominationService;
     private final UserService userService;
+    private final ScoreStatisticsService scoreStatisticsService;
+    private final NominationVoterService nominationVoterService;
+    private final VoterSketchService voterSketchService;
+    private final ProductService productService;
+    private final ParameterService parameterService;
+    private final DisadvantageService disadvantageService;
+    private final LeaderboardService leaderboardService;
+    private final RankingService rankingService;
+    private final CompositeScoringService compositeScoringService;
+    private final ParameterScoreService parameterScoreService;
+    private final NominationResultsService nominationResultsService;
+    private final ScoreIngestionService scoreIngestionService;
 
     @PostMapping()
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
@@ -37,12 +72,11 @@ public class NominationController {
 
     @GetMapping()
     @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT', 'ROLE_ADMIN')")
-    public ResponseEntity<List<Nomination>> read() {
-        final List<Nomination> nominations = nominationService.readAll();
+    public ResponseEntity<List<NominationResponse>> read(@RequestParam(required = false) Integer afterId,
+                                                         @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<NominationResponse> nominations = nominationService.readAllResponses(afterId, size);
 
-        return (nominations != null && !nominations.isEmpty())
-                ? new ResponseEntity<>(nominations, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(nominations, size, NominationResponse::getId);
     }
 
     @GetMapping("/{nominationId}")
@@ -77,70 +111,167 @@ public class NominationController {
 
     @GetMapping("/{nominationId}/products")
     @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT', 'ROLE_ADMIN')")
-    public ResponseEntity<List<Product>> readProducts(@PathVariable Integer nominationId) {
+    public ResponseEntity<List<ProductResponse>> readProducts(
+            @PathVariable Integer nominationId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ProductResponse> products = productService.readResponsesByNomination(nominationId, afterId, size);
+        final ResponseEntity<List<ProductResponse>> page = Keyset.response(products, size, ProductResponse::getId);
+
+        if (page.getStatusCode() != HttpStatus.OK) {
+            return page;
+        }
+
+        final UserIdentity user = userService.loadAuthorizedIdentity();
+
+        if (user == null) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+
+        return nominationVoterService.hasVoted(nominationId, user.getId())
+                ? new ResponseEntity<>(products, page.getHeaders(), HttpStatus.LOCKED)
+                : page;
+    }
+
+    @GetMapping("/{nominationId}/results")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<?> readResults(@PathVariable Integer nominationId) {
         final Nomination nomination = nominationService.read(nominationId);
 
         if (nomination == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
-        final List<Product> products = nomination.getProducts();
+        final NominationResults frozen = nominationResultsService.read(nominationId);
 
-        if (products == null || products.isEmpty()) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        if (frozen != null) {
+            return json(frozen.getResults());
         }
 
-        final List<Score> scores = products.get(0).getScores();
+        final List<ProductResult> results = scoreStatisticsService.readResults(nominationId);
 
-        if (scores != null && !scores.isEmpty()) {
-            final User user = userService.loadUserByUsername(AuthorizedUser.getUsername());
+        return (results != null && !results.isEmpty())
+                ? new ResponseEntity<>(results, HttpStatus.OK)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
 
-            if (user == null) {
-                return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-            }
+    /**
+     * Возвращает таблицу итоговых результатов номинации: экспертные оценки, оценки обычных потребителей и оценки
+     * критериев, сведённые с весами из настроек application.scoring.* и весами критериев.
+     */
+    @GetMapping("/{nominationId}/composite-results")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<?> readCompositeResults(@PathVariable Integer nominationId) {
+        final Nomination nomination = nominationService.read(nominationId);
+
+        if (nomination == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        final NominationResults frozen = nominationResultsService.read(nominationId);
 
-            for (Score score : scores) {
-                if (score.getUser().getId().equals(user.getId())) {
-                    return new ResponseEntity<>(products, HttpStatus.LOCKED);
-                }
-            }
+        if (frozen != null) {
+            return json(frozen.getCompositeResults());
         }
 
-        return new ResponseEntity<>(products, HttpStatus.OK);
+        final List<CompositeResult> results = compositeScoringService.readResults(nominationId);
+
+        return !results.isEmpty()
+                ? new ResponseEntity<>(results, HttpStatus.OK)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    @GetMapping("/{nominationId}/parameters")
-    @PreAuthorize("hasAnyRole('ROLE_EXPERT', 'ROLE_ADMIN')")
-    public ResponseEntity<List<Parameter>> readParameters(@PathVariable Integer nominationId) {
+    /**
+     * Возвращает матрицу оценок критериев номинации (продукты x критерии) для тепловой карты одним запросом.
+     */
+    @GetMapping("/{nominationId}/parameter-matrix")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<?> readParameterMatrix(@PathVariable Integer nominationId) {
         final Nomination nomination = nominationService.read(nominationId);
 
         if (nomination == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
-        final List<Parameter> parameters = nomination.getParameters();
+        final NominationResults frozen = nominationResultsService.read(nominationId);
+
+        return frozen != null
+                ? json(frozen.getParameterMatrix())
+                : new ResponseEntity<>(parameterScoreService.readMatrix(nominationId), HttpStatus.OK);
+    }
+
+    /**
+     * Подписывает панель результатов на изменения таблицы результатов номинации (Server-Sent Events)
+     * вместо периодического опроса.
+     */
+    @GetMapping(path = "/{nominationId}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<SseEmitter> streamResults(@PathVariable Integer nominationId) throws IOException {
+        final Nomination nomination = nominationService.read(nominationId);
 
-        return (parameters != null && !parameters.isEmpty())
-                ? new ResponseEntity<>(parameters, HttpStatus.OK)
+        return nomination != null
+                ? new ResponseEntity<>(leaderboardService.subscribe(nominationId), HttpStatus.OK)
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    @GetMapping("/{nominationId}/disadvantages")
-    @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_ADMIN')")
-    public ResponseEntity<List<Disadvantage>> readDisadvantages(@PathVariable Integer nominationId) {
+    /**
+     * Возвращает строки рейтинга номинации начиная с позиции from (без запросов к оценкам и статистике).
+     */
+    @GetMapping("/{nominationId}/ranking")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<?> readRanking(@PathVariable Integer nominationId,
+                                         @RequestParam(defaultValue = "0") int from,
+                                         @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
         final Nomination nomination = nominationService.read(nominationId);
 
         if (nomination == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
-        final List<Disadvantage> disadvantages = nomination.getDisadvantages();
+        final NominationResults frozen = nominationResultsService.read(nominationId);
+
+        return frozen != null
+                ? new ResponseEntity<>(nominationResultsService.readRanking(frozen, from, size), HttpStatus.OK)
+                : new ResponseEntity<>(rankingService.readRange(nominationId, from, size), HttpStatus.OK);
+    }
 
-        return (disadvantages != null && !disadvantages.isEmpty())
-                ? new ResponseEntity<>(disadvantages, HttpStatus.OK)
+    @GetMapping("/{nominationId}/ranking/{productId}")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<?> readRanking(@PathVariable Integer nominationId, @PathVariable Integer productId) {
+        final NominationResults frozen = nominationResultsService.read(nominationId);
+        final Object entry = frozen != null
+                ? nominationResultsService.readRanking(frozen, productId)
+                : rankingService.read(nominationId, productId);
+
+        return entry != null
+                ? new ResponseEntity<>(entry, HttpStatus.OK)
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    @GetMapping("/{nominationId}/parameters")
+    @PreAuthorize("hasAnyRole('ROLE_EXPERT', 'ROLE_ADMIN')")
+    public ResponseEntity<List<ParameterResponse>> readParameters(
+            @PathVariable Integer nominationId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ParameterResponse> parameters =
+                parameterService.readResponsesByNomination(nominationId, afterId, size);
+
+        return Keyset.response(parameters, size, ParameterResponse::getId);
+    }
+
+    @GetMapping("/{nominationId}/disadvantages")
+    @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_ADMIN')")
+    public ResponseEntity<List<DisadvantageResponse>> readDisadvantages(
+            @PathVariable Integer nominationId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<DisadvantageResponse> disadvantages =
+                disadvantageService.readResponsesByNomination(nominationId, afterId, size);
+
+        return Keyset.response(disadvantages, size, DisadvantageResponse::getId);
+    }
+
     @PutMapping("/{nominationId}/activate")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
     public ResponseEntity<?> activate(@PathVariable Integer nominationId) {
@@ -193,7 +324,12 @@ public class NominationController {
         nomination.setFinished(true);
 
         try {
-            return nominationService.update(nominationId, nomination)
+            // Оценки, принятые на асинхронную запись, записываются до заморозки результатов (не в её транзакции),
+            // а оценки, которые придут после завершения, будут отклонены.
+            scoreIngestionService.drain();
+
+            // Результаты завершённой номинации окончательные, поэтому считаются один раз и сохраняются.
+            return nominationResultsService.finish(nominationId, nomination)
                     ? new ResponseEntity<>("Номинация завершена", HttpStatus.OK)
                     : new ResponseEntity<>("Не удалось найти номинацию", HttpStatus.NOT_FOUND);
         } catch (ApiRequestException e) {
@@ -213,7 +349,7 @@ public class NominationController {
         nomination.setFinished(false);
 
         try {
-            return nominationService.update(nominationId, nomination)
+            return nominationResultsService.start(nominationId, nomination)
                     ? new ResponseEntity<>("Номинация снова запущена", HttpStatus.OK)
                     : new ResponseEntity<>("Не удалось найти номинацию", HttpStatus.NOT_FOUND);
         } catch (ApiRequestException e) {
@@ -223,25 +359,31 @@ public class NominationController {
 
     @GetMapping("/{nominationId}/number-of-voters")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
-    public ResponseEntity<Integer> countVoters(@PathVariable Integer nominationId) {
+    public ResponseEntity<Long> countVoters(@PathVariable Integer nominationId,
+                                            @RequestParam(defaultValue = "false") boolean approximate) {
         final Nomination nomination = nominationService.read(nominationId);
 
         if (nomination == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
-        final List<Product> products = nomination.getProducts();
+        final NominationResults frozen = nominationResultsService.read(nominationId);
 
-        if (products == null || products.isEmpty()) {
-            return new ResponseEntity<>(0, HttpStatus.OK);
+        if (frozen != null) {
+            return new ResponseEntity<>(frozen.getVotersCount(), HttpStatus.OK);
         }
 
-        final List<Score> scores = products.get(0).getScores();
-
-        if (scores == null || scores.isEmpty()) {
-            return new ResponseEntity<>(0, HttpStatus.OK);
-        }
+        return approximate
+                ? new ResponseEntity<>(voterSketchService.estimate(nominationId), HttpStatus.OK)
+                : new ResponseEntity<>(nominationVoterService.count(nominationId), HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(scores.size(), HttpStatus.OK);
+    /**
+     * Отдаёт замороженную таблицу результатов (уже сериализованную в JSON) без повторной сериализации.
+     */
+    private static ResponseEntity<byte[]> json(String json) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -1,8 +1,16 @@
 package championoftaste.api.controller.competition;
 
-import championoftaste.api.model.Nomination;
+import championoftaste.api.Keyset;
 import championoftaste.api.model.NominationGroup;
+import championoftaste.api.response.NominationGroupResponse;
+import championoftaste.api.response.NominationGroupTreeResponse;
+import championoftaste.api.response.NominationResponse;
 import championoftaste.api.service.NominationGroupService;
+import championoftaste.api.service.NominationResultsService;
+import championoftaste.api.service.NominationService;
+import championoftaste.api.service.NominationVoterService;
+import championoftaste.api.service.ScoreIngestionService;
+import championoftaste.api.service.VoterSketchService;
 import championoftaste.exception.ApiRequestException;
 
 import lombok.AllArgsConstructor;
@@ -20,6 +28,11 @@ import java.util.List;
 public class NominationGroupController {
 
     private final NominationGroupService nominationGroupService;
+    private final NominationVoterService nominationVoterService;
+    private final VoterSketchService voterSketchService;
+    private final NominationService nominationService;
+    private final NominationResultsService nominationResultsService;
+    private final ScoreIngestionService scoreIngestionService;
 
     @PostMapping()
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
@@ -35,11 +48,31 @@ public class NominationGroupController {
 
     @GetMapping()
     @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT', 'ROLE_ADMIN')")
-    public ResponseEntity<List<NominationGroup>> read() {
-        final List<NominationGroup> nominationGroups = nominationGroupService.readAll();
+    public ResponseEntity<List<NominationGroupResponse>> read(
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<NominationGroupResponse> nominationGroups = nominationGroupService.readAllResponses(afterId, size);
 
-        return (nominationGroups != null && !nominationGroups.isEmpty())
-                ? new ResponseEntity<>(nominationGroups, HttpStatus.OK)
+        return Keyset.response(nominationGroups, size, NominationGroupResponse::getId);
+    }
+
+    @GetMapping("/tree")
+    @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT', 'ROLE_ADMIN')")
+    public ResponseEntity<List<NominationGroupTreeResponse>> readTrees(
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<NominationGroupTreeResponse> trees = nominationGroupService.readTrees(afterId, size);
+
+        return Keyset.response(trees, size, NominationGroupTreeResponse::getId);
+    }
+
+    @GetMapping("/{groupId}/tree")
+    @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT', 'ROLE_ADMIN')")
+    public ResponseEntity<NominationGroupTreeResponse> readTree(@PathVariable Integer groupId) {
+        final NominationGroupTreeResponse tree = nominationGroupService.readTree(groupId);
+
+        return tree != null
+                ? new ResponseEntity<>(tree, HttpStatus.OK)
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
@@ -73,19 +106,74 @@ public class NominationGroupController {
                 : new ResponseEntity<>("Не удалось найти группу номинаций", HttpStatus.NOT_FOUND);
     }
 
+    @PutMapping("/{groupId}/finish")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<?> finish(@PathVariable Integer groupId) {
+        final NominationGroup nominationGroup = nominationGroupService.read(groupId);
+
+        if (nominationGroup == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        nominationGroup.setFinished(true);
+
+        try {
+            // Оценки, принятые на асинхронную запись, записываются до заморозки результатов.
+            scoreIngestionService.drain();
+
+            // Результаты всех номинаций завершённой группы окончательные, поэтому считаются один раз и сохраняются.
+            return nominationResultsService.finishGroup(groupId, nominationGroup)
+                    ? new ResponseEntity<>("Группа номинаций завершена", HttpStatus.OK)
+                    : new ResponseEntity<>("Не удалось найти группу номинаций", HttpStatus.NOT_FOUND);
+        } catch (ApiRequestException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PutMapping("/{groupId}/start")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<?> start(@PathVariable Integer groupId) {
+        final NominationGroup nominationGroup = nominationGroupService.read(groupId);
+
+        if (nominationGroup == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        nominationGroup.setFinished(false);
+
+        try {
+            // Номинации, завершённые сами по себе, остаются завершёнными вместе со своими результатами.
+            return nominationResultsService.startGroup(groupId, nominationGroup)
+                    ? new ResponseEntity<>("Группа номинаций снова запущена", HttpStatus.OK)
+                    : new ResponseEntity<>("Не удалось найти группу номинаций", HttpStatus.NOT_FOUND);
+        } catch (ApiRequestException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("{groupId}/nominations")
     @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT', 'ROLE_ADMIN')")
-    public ResponseEntity<List<Nomination>> readNominations(@PathVariable Integer groupId) {
+    public ResponseEntity<List<NominationResponse>> readNominations(
+            @PathVariable Integer groupId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<NominationResponse> nominations = nominationService.readResponsesByGroup(groupId, afterId, size);
+
+        return Keyset.response(nominations, size, NominationResponse::getId);
+    }
+
+    @GetMapping("/{groupId}/number-of-voters")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<Long> countVoters(@PathVariable Integer groupId,
+                                            @RequestParam(defaultValue = "false") boolean approximate) {
         final NominationGroup nominationGroup = nominationGroupService.read(groupId);
 
         if (nominationGroup == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
-        final List<Nomination> nominations = nominationGroup.getNominations();
-
-        return (nominations != null && !nominations.isEmpty())
-                ? new ResponseEntity<>(nominations, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return approximate
+                ? new ResponseEntity<>(voterSketchService.estimateByGroup(groupId), HttpStatus.OK)
+                : new ResponseEntity<>(nominationVoterService.countByGroup(groupId), HttpStatus.OK);
     }
 }
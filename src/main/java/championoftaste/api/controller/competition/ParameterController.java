@@ -1,7 +1,10 @@
 package championoftaste.api.controller.competition;
 
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Parameter;
-import championoftaste.api.model.ParameterScore;
+import championoftaste.api.response.ParameterResponse;
+import championoftaste.api.response.ParameterScoreResponse;
+import championoftaste.api.service.ParameterScoreService;
 import championoftaste.api.service.ParameterService;
 import championoftaste.exception.ApiRequestException;
 
@@ -21,6 +24,7 @@ import java.util.List;
 public class ParameterController {
 
     private final ParameterService parameterService;
+    private final ParameterScoreService parameterScoreService;
 
     @PostMapping()
     public ResponseEntity<?> create(@RequestBody Parameter parameter) {
@@ -34,12 +38,11 @@ public class ParameterController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<Parameter>> read() {
-        final List<Parameter> parameters = parameterService.readAll();
+    public ResponseEntity<List<ParameterResponse>> read(@RequestParam(required = false) Integer afterId,
+                                                        @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ParameterResponse> parameters = parameterService.readAllResponses(afterId, size);
 
-        return (parameters != null && !parameters.isEmpty())
-                ? new ResponseEntity<>(parameters, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(parameters, size, ParameterResponse::getId);
     }
 
     @GetMapping("/{parameterId}")
@@ -70,17 +73,13 @@ public class ParameterController {
     }
 
     @GetMapping("/{parameterId}/parameter-scores")
-    public ResponseEntity<List<ParameterScore>> getParameterScores(@PathVariable("parameterId") Integer parameterId) {
-        final Parameter parameter = parameterService.read(parameterId);
-
-        if (parameter == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-
-        final List<ParameterScore> parameterScores = parameter.getScores();
-
-        return (parameterScores != null && !parameterScores.isEmpty())
-                ? new ResponseEntity<>(parameterScores, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public ResponseEntity<List<ParameterScoreResponse>> getParameterScores(
+            @PathVariable("parameterId") Integer parameterId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ParameterScoreResponse> parameterScores =
+                parameterScoreService.readResponsesByParameter(parameterId, afterId, size);
+
+        return Keyset.response(parameterScores, size, ParameterScoreResponse::getId);
     }
 }
@@ -1,17 +1,26 @@
 package championoftaste.api.controller.competition;
 
+import championoftaste.api.Bulk;
+import championoftaste.api.Keyset;
 import championoftaste.api.model.ParameterScore;
 import championoftaste.api.model.Score;
 import championoftaste.api.request.ParameterScoreRequest;
+import championoftaste.api.response.ParameterScoreResponse;
+import championoftaste.api.service.IdempotencyService;
 import championoftaste.api.service.ParameterScoreService;
+import championoftaste.api.service.ScoreIngestionService;
 import championoftaste.exception.ApiRequestException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import lombok.AllArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,27 +30,77 @@ import java.util.List;
 public class ParameterScoreController {
 
     private final ParameterScoreService parameterScoreService;
+    private final ScoreIngestionService scoreIngestionService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping()
     @PreAuthorize("hasAnyRole('ROLE_EXPERT')")
-    public ResponseEntity<?> createAll(@RequestBody List<ParameterScoreRequest> parameterScoreRequests) {
-        try {
-            parameterScoreService.create(parameterScoreRequests);
-        } catch (ApiRequestException e) {
-            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-        }
-
-        return new ResponseEntity<>("Оценка успешно выставлена", HttpStatus.CREATED);
+    public ResponseEntity<?> createAll(
+            @RequestBody List<ParameterScoreRequest> parameterScoreRequests,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("/parameter-scores", idempotencyKey, parameterScoreRequests, () -> {
+            try {
+                parameterScoreService.create(parameterScoreRequests);
+            } catch (ApiRequestException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+
+            return new ResponseEntity<>("Оценка успешно выставлена", HttpStatus.CREATED);
+        });
+    }
+
+    /**
+     * Принимает оценки критериев на асинхронную запись: ответ отправляется сразу после записи оценок в журнал,
+     * а итог их записи в базу данных доступен по /submissions/{submissionId}.
+     */
+    @PostMapping("/async")
+    @PreAuthorize("hasAnyRole('ROLE_EXPERT')")
+    public ResponseEntity<?> submitAll(
+            @RequestBody List<ParameterScoreRequest> parameterScoreRequests,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("/parameter-scores/async", idempotencyKey, parameterScoreRequests, () -> {
+            try {
+                return new ResponseEntity<>(
+                        scoreIngestionService.submitParameterScores(parameterScoreRequests),
+                        HttpStatus.ACCEPTED
+                );
+            } catch (ApiRequestException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
+    }
+
+    /**
+     * Сохраняет оценки критериев с частичным успехом: корректные элементы сохраняются, а итог (CREATED, DUPLICATE, INVALID)
+     * возвращается по каждому элементу отправки.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ROLE_EXPERT')")
+    public ResponseEntity<?> createEach(
+            @RequestBody List<ParameterScoreRequest> parameterScoreRequests,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("/parameter-scores/bulk", idempotencyKey, parameterScoreRequests, () -> {
+            try {
+                return new ResponseEntity<>(Bulk.process(
+                        parameterScoreRequests,
+                        ParameterScore.PRODUCT_PARAMETER_USER_CONSTRAINT,
+                        parameterScoreService::createEach
+                ), HttpStatus.OK);
+            } catch (ApiRequestException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
     }
 
     @GetMapping()
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
-    public ResponseEntity<List<ParameterScore>> read() {
-        final List<ParameterScore> scores = parameterScoreService.readAll();
+    public ResponseEntity<List<ParameterScoreResponse>> read(
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ParameterScoreResponse> scores = parameterScoreService.readAllResponses(afterId, size);
 
-        return (scores != null && !scores.isEmpty())
-                ? new ResponseEntity<>(scores, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(scores, size, ParameterScoreResponse::getId);
     }
 
     @GetMapping("/{scoreId}")
@@ -53,4 +112,12 @@ public class ParameterScoreController {
                 ? new ResponseEntity<>(score, HttpStatus.OK)
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Keyset.export(objectMapper, parameterScoreService::readAllResponses, ParameterScoreResponse::getId));
+    }
 }
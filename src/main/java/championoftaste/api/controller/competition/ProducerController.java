@@ -1,8 +1,11 @@
 package championoftaste.api.controller.competition;
 
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Producer;
-import championoftaste.api.model.Product;
+import championoftaste.api.response.ProducerResponse;
+import championoftaste.api.response.ProductResponse;
 import championoftaste.api.service.ProducerService;
+import championoftaste.api.service.ProductService;
 import championoftaste.exception.ApiRequestException;
 
 import lombok.AllArgsConstructor;
@@ -21,6 +24,7 @@ import java.util.List;
 public class ProducerController {
 
     private final ProducerService producerService;
+    private final ProductService productService;
 
     @PostMapping()
     public ResponseEntity<?> create(@RequestBody Producer producer) {
@@ -34,12 +38,11 @@ public class ProducerController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<Producer>> read() {
-        final List<Producer> producers = producerService.readAll();
+    public ResponseEntity<List<ProducerResponse>> read(@RequestParam(required = false) Integer afterId,
+                                                       @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ProducerResponse> producers = producerService.readAllResponses(afterId, size);
 
-        return (producers != null && !producers.isEmpty())
-                ? new ResponseEntity<>(producers, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(producers, size, ProducerResponse::getId);
     }
 
     @GetMapping("/{producerId}")
@@ -70,17 +73,12 @@ public class ProducerController {
     }
 
     @GetMapping("/{producerId}/products")
-    public ResponseEntity<List<Product>> getProducts(@PathVariable("producerId") Integer producerId) {
-        final Producer producer = producerService.read(producerId);
-
-        if (producer == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-
-        final List<Product> products = producer.getProducts();
+    public ResponseEntity<List<ProductResponse>> getProducts(
+            @PathVariable("producerId") Integer producerId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ProductResponse> products = productService.readResponsesByProducer(producerId, afterId, size);
 
-        return (products != null && !products.isEmpty())
-                ? new ResponseEntity<>(products, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(products, size, ProductResponse::getId);
     }
 }
@@ -1,10 +1,17 @@
 package championoftaste.api.controller.competition;
 
-import championoftaste.api.model.Comment;
-import championoftaste.api.model.ParameterScore;
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Product;
-import championoftaste.api.model.Score;
+import championoftaste.api.model.ScoreStatistics;
+import championoftaste.api.response.CommentResponse;
+import championoftaste.api.response.ParameterScoreResponse;
+import championoftaste.api.response.ProductResponse;
+import championoftaste.api.response.ScoreResponse;
+import championoftaste.api.service.CommentService;
+import championoftaste.api.service.ParameterScoreService;
 import championoftaste.api.service.ProductService;
+import championoftaste.api.service.ScoreService;
+import championoftaste.api.service.ScoreStatisticsService;
 import championoftaste.exception.ApiRequestException;
 
 import lombok.AllArgsConstructor;
@@ -22,6 +29,10 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ScoreStatisticsService scoreStatisticsService;
+    private final CommentService commentService;
+    private final ScoreService scoreService;
+    private final ParameterScoreService parameterScoreService;
 
     @PostMapping()
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
@@ -37,12 +48,11 @@ public class ProductController {
 
     @GetMapping()
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
-    public ResponseEntity<List<Product>> read() {
-        final List<Product> products = productService.readAll();
+    public ResponseEntity<List<ProductResponse>> read(@RequestParam(required = false) Integer afterId,
+                                                      @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ProductResponse> products = productService.readAllResponses(afterId, size);
 
-        return (products != null && !products.isEmpty())
-                ? new ResponseEntity<>(products, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(products, size, ProductResponse::getId);
     }
 
     @GetMapping("/{productId}")
@@ -77,75 +87,63 @@ public class ProductController {
 
     @GetMapping("/{productId}/comments")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
-    public ResponseEntity<List<Comment>> getComments(@PathVariable("productId") Integer productId) {
-        final Product product = productService.read(productId);
-
-        if (product == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+    public ResponseEntity<List<CommentResponse>> getComments(
+            @PathVariable("productId") Integer productId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<CommentResponse> comments = commentService.readResponsesByProduct(productId, afterId, size);
 
-        final List<Comment> comments = product.getComments();
-
-        return (comments != null && !comments.isEmpty())
-                ? new ResponseEntity<>(comments, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(comments, size, CommentResponse::getId);
     }
 
     @GetMapping("/{productId}/scores")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
-    public ResponseEntity<List<Score>> getScores(@PathVariable("productId") Integer productId) {
-        final Product product = productService.read(productId);
+    public ResponseEntity<List<ScoreResponse>> getScores(@PathVariable("productId") Integer productId,
+                                                         @RequestParam(required = false) Integer afterId,
+                                                         @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ScoreResponse> scores = scoreService.readResponsesByProduct(productId, afterId, size);
 
-        if (product == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-
-        final List<Score> scores = product.getScores();
-
-        return (scores != null && !scores.isEmpty())
-                ? new ResponseEntity<>(scores, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(scores, size, ScoreResponse::getId);
     }
 
     @GetMapping("/{productId}/parameter-scores")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
-    public ResponseEntity<List<ParameterScore>> getParameterScores(@PathVariable("productId") Integer productId) {
-        final Product product = productService.read(productId);
-
-        if (product == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-
-        final List<ParameterScore> parameterScores = product.getParameterScores();
-
-        return (parameterScores != null && !parameterScores.isEmpty())
-                ? new ResponseEntity<>(parameterScores, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public ResponseEntity<List<ParameterScoreResponse>> getParameterScores(
+            @PathVariable("productId") Integer productId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ParameterScoreResponse> parameterScores =
+                parameterScoreService.readResponsesByProduct(productId, afterId, size);
+
+        return Keyset.response(parameterScores, size, ParameterScoreResponse::getId);
     }
 
     @GetMapping("/{productId}/scores/average")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
     public ResponseEntity<Double> getScoresAverage(@PathVariable("productId") Integer productId) {
-        final Product product = productService.read(productId);
+        final ScoreStatistics statistics = scoreStatisticsService.read(productId);
 
-        if (product == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        if (statistics != null) {
+            return new ResponseEntity<>(statistics.getAverage(), HttpStatus.OK);
         }
 
-        final List<Score> scores = product.getScores();
-
-        if (scores == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+        // Статистики нет, если продукту ещё не выставляли оценок (или если такого продукта нет).
+        return productService.read(productId) != null
+                ? new ResponseEntity<>(0.0, HttpStatus.OK)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
 
-        Double average = 0.0;
+    @GetMapping("/{productId}/scores/statistics")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<ScoreStatistics> getScoresStatistics(@PathVariable("productId") Integer productId) {
+        final ScoreStatistics statistics = scoreStatisticsService.read(productId);
 
-        for (Score score : scores) {
-            average += score.getScore();
+        if (statistics != null) {
+            return new ResponseEntity<>(statistics, HttpStatus.OK);
         }
-        
-        return scores.size() == 0
-                ? new ResponseEntity<>(average, HttpStatus.OK)
-                : new ResponseEntity<>(average / scores.size(), HttpStatus.OK);
+
+        return productService.read(productId) != null
+                ? new ResponseEntity<>(new ScoreStatistics(productId), HttpStatus.OK)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 }
@@ -1,16 +1,25 @@
 package championoftaste.api.controller.competition;
 
+import championoftaste.api.Bulk;
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Score;
 import championoftaste.api.request.ScoreRequest;
+import championoftaste.api.response.ScoreResponse;
+import championoftaste.api.service.IdempotencyService;
+import championoftaste.api.service.ScoreIngestionService;
 import championoftaste.api.service.ScoreService;
 import championoftaste.exception.ApiRequestException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import lombok.AllArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,27 +29,72 @@ import java.util.List;
 public class ScoreController {
 
     private final ScoreService scoreService;
+    private final ScoreIngestionService scoreIngestionService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT')")
-    public ResponseEntity<?> createAll(@RequestBody List<ScoreRequest> scoreRequests) {
-        try {
-            scoreService.create(scoreRequests);
-        } catch (ApiRequestException e) {
-            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-        }
-
-        return new ResponseEntity<>("Оценки успешно выставлена", HttpStatus.CREATED);
+    public ResponseEntity<?> createAll(
+            @RequestBody List<ScoreRequest> scoreRequests,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("/scores", idempotencyKey, scoreRequests, () -> {
+            try {
+                scoreService.create(scoreRequests);
+            } catch (ApiRequestException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+
+            return new ResponseEntity<>("Оценки успешно выставлена", HttpStatus.CREATED);
+        });
+    }
+
+    /**
+     * Принимает оценки на асинхронную запись: ответ отправляется сразу после записи оценок в журнал,
+     * а итог их записи в базу данных доступен по /submissions/{submissionId}.
+     */
+    @PostMapping("/async")
+    @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT')")
+    public ResponseEntity<?> submitAll(
+            @RequestBody List<ScoreRequest> scoreRequests,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("/scores/async", idempotencyKey, scoreRequests, () -> {
+            try {
+                return new ResponseEntity<>(scoreIngestionService.submitScores(scoreRequests), HttpStatus.ACCEPTED);
+            } catch (ApiRequestException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
+    }
+
+    /**
+     * Сохраняет оценки с частичным успехом: корректные элементы сохраняются, а итог (CREATED, DUPLICATE, INVALID)
+     * возвращается по каждому элементу отправки.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT')")
+    public ResponseEntity<?> createEach(
+            @RequestBody List<ScoreRequest> scoreRequests,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("/scores/bulk", idempotencyKey, scoreRequests, () -> {
+            try {
+                return new ResponseEntity<>(
+                        Bulk.process(scoreRequests, Score.PRODUCT_USER_CONSTRAINT, scoreService::createEach),
+                        HttpStatus.OK
+                );
+            } catch (ApiRequestException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
     }
 
     @GetMapping()
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
-    public ResponseEntity<List<Score>> read() {
-        final List<Score> scores = scoreService.readAll();
+    public ResponseEntity<List<ScoreResponse>> read(@RequestParam(required = false) Integer afterId,
+                                                    @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ScoreResponse> scores = scoreService.readAllResponses(afterId, size);
 
-        return (scores != null && !scores.isEmpty())
-                ? new ResponseEntity<>(scores, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(scores, size, ScoreResponse::getId);
     }
 
     @GetMapping("/{scoreId}")
@@ -52,4 +106,12 @@ public class ScoreController {
                 ? new ResponseEntity<>(score, HttpStatus.OK)
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Keyset.export(objectMapper, scoreService::readAllResponses, ScoreResponse::getId));
+    }
 }
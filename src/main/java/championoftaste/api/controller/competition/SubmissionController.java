@@ -0,0 +1,35 @@
+package championoftaste.api.controller.competition;
+
+import championoftaste.api.response.SubmissionResponse;
+import championoftaste.api.service.ScoreIngestionService;
+import championoftaste.exception.ApiRequestException;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(path = "/submissions")
+@PreAuthorize("hasAnyRole('ROLE_CONSUMER', 'ROLE_EXPERT', 'ROLE_ADMIN')")
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class SubmissionController {
+
+    private final ScoreIngestionService scoreIngestionService;
+
+    @GetMapping("/{submissionId}")
+    public ResponseEntity<?> read(@PathVariable String submissionId) {
+        final SubmissionResponse submission;
+        try {
+            submission = scoreIngestionService.readStatus(submissionId);
+        } catch (ApiRequestException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        return submission != null
+                ? new ResponseEntity<>(submission, HttpStatus.OK)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+}
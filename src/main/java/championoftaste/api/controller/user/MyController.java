@@ -1,6 +1,7 @@
 package championoftaste.api.controller.user;
 
 import championoftaste.api.AuthorizedUser;
+import championoftaste.api.UserIdentity;
 import championoftaste.api.model.User;
 import championoftaste.api.request.UserRequest;
 import championoftaste.api.service.UserService;
@@ -31,9 +32,11 @@ public class MyController {
                 return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
             }
 
-            final User user = userService.loadUserByUsername(username);
+            final User user = userService.read(userService.loadAuthorizedIdentity().getId());
 
-            return new ResponseEntity<>(user, HttpStatus.OK);
+            return user != null
+                    ? new ResponseEntity<>(user, HttpStatus.OK)
+                    : new ResponseEntity<>(HttpStatus.NOT_FOUND);
 
         } catch (UsernameNotFoundException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -48,7 +51,7 @@ public class MyController {
                 return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
             }
 
-            final User user = userService.loadUserByUsername(username);
+            final UserIdentity user = userService.loadAuthorizedIdentity();
 
             try {
                 final boolean updated = userService.update(user.getId(), request);
@@ -72,7 +75,7 @@ public class MyController {
                 return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
             }
 
-            final User user = userService.loadUserByUsername(username);
+            final UserIdentity user = userService.loadAuthorizedIdentity();
 
             final boolean deleted = userService.delete(user.getId());
 
@@ -1,18 +1,27 @@
 package championoftaste.api.controller.user;
 
-import championoftaste.api.model.Comment;
-import championoftaste.api.model.ParameterScore;
-import championoftaste.api.model.Score;
+import championoftaste.api.Keyset;
 import championoftaste.api.model.User;
+import championoftaste.api.response.CommentResponse;
+import championoftaste.api.response.ParameterScoreResponse;
+import championoftaste.api.response.ScoreResponse;
+import championoftaste.api.response.UserResponse;
+import championoftaste.api.service.CommentService;
+import championoftaste.api.service.ParameterScoreService;
+import championoftaste.api.service.ScoreService;
 import championoftaste.api.service.UserService;
 import championoftaste.exception.ApiRequestException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import lombok.AllArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,6 +32,10 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final CommentService commentService;
+    private final ScoreService scoreService;
+    private final ParameterScoreService parameterScoreService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping()
     public ResponseEntity<?> create(@RequestBody User user) {
@@ -36,12 +49,11 @@ public class UserController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<User>> read() {
-        final List<User> users = userService.readAll();
+    public ResponseEntity<List<UserResponse>> read(@RequestParam(required = false) Integer afterId,
+                                                   @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<UserResponse> users = userService.readAllResponses(afterId, size);
 
-        return (users != null && !users.isEmpty())
-                ? new ResponseEntity<>(users, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(users, size, UserResponse::getId);
     }
 
     @GetMapping("/{userId}")
@@ -72,47 +84,39 @@ public class UserController {
     }
 
     @GetMapping("/{userId}/comments")
-    public ResponseEntity<List<Comment>> getComments(@PathVariable(name = "userId") Integer userId) {
-        final User user = userService.read(userId);
-
-        if (user == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+    public ResponseEntity<List<CommentResponse>> getComments(
+            @PathVariable(name = "userId") Integer userId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<CommentResponse> comments = commentService.readResponsesByUser(userId, afterId, size);
 
-        final List<Comment> comments = user.getComments();
-
-        return (comments != null && !comments.isEmpty())
-                ? new ResponseEntity<>(comments, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(comments, size, CommentResponse::getId);
     }
 
     @GetMapping("/{userId}/scores")
-    public ResponseEntity<List<Score>> getScores(@PathVariable(name = "userId") Integer userId) {
-        final User user = userService.read(userId);
-
-        if (user == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-
-        final List<Score> scores = user.getScores();
+    public ResponseEntity<List<ScoreResponse>> getScores(@PathVariable(name = "userId") Integer userId,
+                                                         @RequestParam(required = false) Integer afterId,
+                                                         @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ScoreResponse> scores = scoreService.readResponsesByUser(userId, afterId, size);
 
-        return (scores != null && !scores.isEmpty())
-                ? new ResponseEntity<>(scores, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return Keyset.response(scores, size, ScoreResponse::getId);
     }
 
     @GetMapping("/{userId}/parameter-scores")
-    public ResponseEntity<List<ParameterScore>> getParameterScores(@PathVariable(name = "userId") Integer userId) {
-        final User user = userService.read(userId);
-
-        if (user == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-
-        final List<ParameterScore> parameterScores = user.getParameterScores();
+    public ResponseEntity<List<ParameterScoreResponse>> getParameterScores(
+            @PathVariable(name = "userId") Integer userId,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = Keyset.DEFAULT_SIZE) int size) {
+        final List<ParameterScoreResponse> parameterScores =
+                parameterScoreService.readResponsesByUser(userId, afterId, size);
+
+        return Keyset.response(parameterScores, size, ParameterScoreResponse::getId);
+    }
 
-        return (parameterScores != null && !parameterScores.isEmpty())
-                ? new ResponseEntity<>(parameterScores, HttpStatus.OK)
-                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Keyset.export(objectMapper, userService::readAllResponses, UserResponse::getId));
     }
 }
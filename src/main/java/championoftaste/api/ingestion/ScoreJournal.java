@@ -0,0 +1,241 @@
+package championoftaste.api.ingestion;
+
+import championoftaste.config.IngestionConfig;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Локальный журнал отправок оценок: файл, в конец которого дописываются записи (по одной JSON-строке).
+ * Запись считается сохранённой только после сброса файла на диск (fsync).
+ */
+@Component
+public class ScoreJournal {
+
+    private final ObjectMapper objectMapper;
+    private final IngestionConfig ingestionConfig;
+
+    private Path path;
+    private FileChannel channel;
+
+    public ScoreJournal(ObjectMapper objectMapper, IngestionConfig ingestionConfig) {
+        this.objectMapper = objectMapper;
+        this.ingestionConfig = ingestionConfig;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        path = Paths.get(ingestionConfig.getJournalPath()).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+
+        channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+
+        // Отбрасываем недописанную при аварийной остановке запись, чтобы новые записи начинались с новой строки.
+        long size = channel.size();
+        ByteBuffer last = ByteBuffer.allocate(1);
+
+        while (size > 0) {
+            last.clear();
+            channel.read(last, size - 1);
+
+            if (last.get(0) == '\n') {
+                break;
+            }
+
+            size--;
+        }
+
+        if (size < channel.size()) {
+            channel.truncate(size);
+            channel.force(true);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Дописывает запись в журнал и дожидается её сохранения на диск.
+     *
+     * @param submission запись
+     */
+    public void append(Submission submission) {
+        appendAll(Collections.singletonList(submission));
+    }
+
+    /**
+     * Дописывает записи в журнал одной операцией записи и дожидается их сохранения на диск.
+     *
+     * @param submissions записи
+     */
+    public void appendAll(List<Submission> submissions) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+
+        try {
+            for (Submission submission : submissions) {
+                lines.write(objectMapper.writeValueAsBytes(submission));
+                lines.write('\n');
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            FileChannel current;
+
+            synchronized (this) {
+                current = channel;
+
+                while (buffer.hasRemaining()) {
+                    current.write(buffer, current.size());
+                }
+            }
+
+            // Сброс на диск выполняется вне блокировки: несколько потоков, дописавших свои записи, ждут
+            // одного и того же сброса, а не выстраиваются в очередь по одному сбросу на каждую запись.
+            current.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Читает все записи журнала. Последняя строка, дописанная не до конца (при аварийной остановке приложения),
+     * пропускается: запрос, к которому она относится, ещё не был подтверждён клиенту.
+     *
+     * @return записи журнала в порядке их добавления
+     */
+    public List<Submission> readAll() {
+        List<Submission> submissions = new ArrayList<>();
+        readEach(submissions::add);
+        return submissions;
+    }
+
+    /**
+     * Читает записи журнала по одной строке (журнал целиком в память не загружается).
+     *
+     * @param consumer обработчик записей в порядке их добавления
+     */
+    public synchronized void readEach(Consumer<Submission> consumer) {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                Submission submission;
+
+                try {
+                    submission = objectMapper.readValue(line, Submission.class);
+                } catch (JsonProcessingException e) {
+                    continue;   // недописанная запись
+                }
+
+                consumer.accept(submission);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Возвращает размер журнала.
+     *
+     * @return размер файла журнала (в байтах)
+     */
+    public synchronized long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Заменяет журнал указанными записями (например, ещё не записанными в базу данных отправками). Новый журнал
+     * записывается во временный файл и подменяет прежний атомарным переименованием, поэтому при аварийной
+     * остановке на диске остаётся либо прежний журнал, либо новый целиком. Во время замены в журнал
+     * не должны дописываться записи.
+     *
+     * @param submissions записи нового журнала
+     */
+    public synchronized void rewrite(Collection<Submission> submissions) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+            try (FileChannel rewritten = FileChannel.open(
+                    temporary,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+            )) {
+                for (Submission submission : submissions) {
+                    ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(submission) + "\n")
+                            .getBytes(StandardCharsets.UTF_8));
+
+                    while (line.hasRemaining()) {
+                        rewritten.write(line);
+                    }
+                }
+
+                rewritten.force(true);
+            }
+
+            channel.close();
+
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                // Если заменить журнал не удалось, продолжаем дописывать прежний.
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Очищает журнал (когда все отправки из него записаны в базу данных).
+     */
+    public synchronized void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package championoftaste.api.ingestion;
+
+import championoftaste.api.SubmissionStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Класс, описывающий запись журнала оценок: либо принятую отправку оценок (статус PENDING, заполнены оценки),
+ * либо итог её записи в базу данных (статус ACCEPTED или REJECTED, оценки не заполнены).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля
+@Setter             // создаёт дефолтные сеттеры автоматически для каждого поля
+@NoArgsConstructor  // создаёт конструктор без параметров
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class Submission {
+
+    private String id;                  // id отправки
+    private Type type;                  // вид оценок
+    private Integer userId;             // id пользователя, который выставил оценки
+    private boolean isExpert;           // является ли пользователь экспертом
+    private List<Item> items;           // оценки (null - запись об итоге отправки)
+    private SubmissionStatus status;    // состояние отправки
+    private String message;             // причина отклонения отправки
+
+    /**
+     * Создаёт запись об итоге записи отправки в базу данных.
+     *
+     * @param status  итоговое состояние отправки
+     * @param message причина отклонения отправки (null - отправка принята)
+     * @return запись об итоге отправки
+     */
+    public Submission complete(SubmissionStatus status, String message) {
+        return new Submission(id, type, userId, isExpert, null, status, message);
+    }
+
+    /**
+     * Виды оценок, принимаемых на асинхронную запись.
+     */
+    public enum Type {
+        SCORES,             // оценки продуктов
+        PARAMETER_SCORES    // оценки критериев продуктов
+    }
+
+    /**
+     * Класс, описывающий одну оценку отправки.
+     */
+    @Getter             // создаёт дефолтные геттеры автоматически для каждого поля
+    @Setter             // создаёт дефолтные сеттеры автоматически для каждого поля
+    @NoArgsConstructor  // создаёт конструктор без параметров
+    @AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+    public static class Item {
+
+        private Integer productId;      // id продукта
+        private Integer parameterId;    // id критерия (null - оценка продукта)
+        private Short score;            // значение оценки
+    }
+}
@@ -27,7 +27,7 @@ public class Comment {
     @SequenceGenerator(
             name = "comments_sequence",
             sequenceName = "comments_sequence",
-            allocationSize = 1
+            allocationSize = 50     // id выделяются пачками (pooled-lo), чтобы вставки можно было объединять в batch
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -25,8 +25,18 @@ import java.util.List;
 @NoArgsConstructor              // создаёт конструктор без параметров
 @Entity(name = "nomination")    // POJO, представляющий данные, которые могут быть сохранены в базе данных
 @Table(name = "nominations")    // все объекты данного класса будут храниться в таблице "nominations"
+@NamedEntityGraph(              // план загрузки номинации вместе с группой, продуктами и их производителями
+        name = Nomination.PRODUCTS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("nominationGroup"),
+                @NamedAttributeNode(value = "products", subgraph = "products")
+        },
+        subgraphs = @NamedSubgraph(name = "products", attributeNodes = @NamedAttributeNode("producer"))
+)
 public class Nomination {
 
+    public static final String PRODUCTS_GRAPH = "nomination.products";
+
     @Id
     @SequenceGenerator(
             name = "nominations_sequence",
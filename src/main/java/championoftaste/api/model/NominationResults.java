@@ -0,0 +1,57 @@
+package championoftaste.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Класс, описывающий замороженные результаты завершённой номинации (снимок, сохраняемый при завершении номинации
+ * или её группы и удаляемый при повторном запуске). Таблицы результатов хранятся уже сериализованными в JSON,
+ * поэтому отдаются клиентам без пересчёта оценок.
+ */
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Getter                                 // создаёт дефолтные геттеры автоматически для каждого поля
+@Setter                                 // создаёт дефолтные сеттеры автоматически для каждого поля
+@EqualsAndHashCode                      // реализует следующие методы: equals(Object other) и hashCode()
+@NoArgsConstructor                      // создаёт конструктор без параметров
+@Entity(name = "nominationResults")     // POJO, представляющий данные, которые могут быть сохранены в базе данных
+@Table(name = "nomination_results")     // все объекты данного класса будут храниться в таблице "nomination_results"
+public class NominationResults {
+
+    @Id
+    @Column(name = "nomination_id")
+    private Integer nominationId;       // id номинации, к которой относятся результаты
+
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "nomination_id", referencedColumnName = "id", insertable = false, updatable = false)
+    private Nomination nomination;      // номинация (результаты удаляются базой данных вместе с номинацией)
+
+    @Column(name = "finished_at", nullable = false)
+    private Instant finishedAt;         // момент завершения номинации
+
+    @Column(name = "voters_count", nullable = false)
+    private long votersCount;           // количество проголосовавших пользователей
+
+    @Column(name = "results", nullable = false, columnDefinition = "TEXT")
+    private String results;             // таблица результатов (JSON, список ProductResult)
+
+    @Column(name = "ranking", nullable = false, columnDefinition = "TEXT")
+    private String ranking;             // рейтинг (JSON, список RankingTree.Entry)
+
+    @Column(name = "composite_results", nullable = false, columnDefinition = "TEXT")
+    private String compositeResults;    // таблица итоговых результатов (JSON, список CompositeResult)
+
+    @Column(name = "parameter_matrix", nullable = false, columnDefinition = "TEXT")
+    private String parameterMatrix;     // матрица оценок критериев (JSON, ParameterScoreMatrix)
+}
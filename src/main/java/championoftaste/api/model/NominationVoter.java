@@ -0,0 +1,70 @@
+package championoftaste.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+
+import java.io.Serializable;
+
+/**
+ * Класс, описывающий пользователя, проголосовавшего в номинации (выставившего оценку хотя бы одному её продукту).
+ * Поддерживается при каждом добавлении и удалении оценок, поэтому проверка "голосовал ли пользователь" и подсчёт
+ * проголосовавших выполняются по первичному ключу, без загрузки оценок.
+ */
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Getter                             // создаёт дефолтные геттеры автоматически для каждого поля
+@Setter                             // создаёт дефолтные сеттеры автоматически для каждого поля
+@EqualsAndHashCode                  // реализует следующие методы: equals(Object other) и hashCode()
+@NoArgsConstructor                  // создаёт конструктор без параметров
+@Entity(name = "nominationVoter")   // POJO, представляющий данные, которые могут быть сохранены в базе данных
+@Table(name = "nomination_voters")  // все объекты данного класса будут храниться в таблице "nomination_voters"
+@IdClass(NominationVoter.Key.class)
+public class NominationVoter {
+
+    @Id
+    @Column(name = "nomination_id")
+    private Integer nominationId;       // id номинации
+
+    @Id
+    @Column(name = "user_id")
+    private Integer userId;             // id проголосовавшего пользователя
+
+    @JsonIgnore
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "nomination_id", referencedColumnName = "id", insertable = false, updatable = false)
+    private Nomination nomination;      // номинация (запись удаляется базой данных вместе с номинацией)
+
+    @JsonIgnore
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", insertable = false, updatable = false)
+    private User user;                  // пользователь (запись удаляется базой данных вместе с пользователем)
+
+    @Column(name = "scores_count", nullable = false)
+    private long scoresCount = 0;       // количество оценок, выставленных пользователем продуктам номинации
+
+    /**
+     * Составной первичный ключ записи о проголосовавшем пользователе.
+     */
+    @Getter             // создаёт дефолтные геттеры автоматически для каждого поля
+    @Setter             // создаёт дефолтные сеттеры автоматически для каждого поля
+    @EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+    @NoArgsConstructor  // создаёт конструктор без параметров
+    @AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+    public static class Key implements Serializable {
+
+        private Integer nominationId;   // id номинации
+        private Integer userId;         // id пользователя
+    }
+}
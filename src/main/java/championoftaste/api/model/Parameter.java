@@ -11,6 +11,7 @@ import lombok.Setter;
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -49,6 +50,10 @@ public class Parameter {
     @JoinColumn(name = "nomination_id", referencedColumnName = "id", nullable = false)
     private Nomination nomination;      // номинация, к которой относится данный параметр (критерий)
 
+    @PositiveOrZero(message = "Вес критерия не должен быть отрицательным")
+    @Column(name = "weight", nullable = false, columnDefinition = "DOUBLE PRECISION DEFAULT 1")
+    private double weight = 1.0;        // вес критерия в итоговой оценке продукта (0 - критерий не учитывается)
+
     @JsonIgnore
     @OneToMany(
             cascade = CascadeType.ALL,  // каскадировать все операции на связанные сущности
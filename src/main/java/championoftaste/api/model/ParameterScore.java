@@ -19,14 +19,23 @@ import javax.validation.constraints.NotNull;
 @EqualsAndHashCode              // реализует следующие методы: equals(Object other) и hashCode()
 @NoArgsConstructor              // создаёт конструктор без параметров
 @Entity(name = "parameterScore")   // POJO, представляющий данные, которые могут быть сохранены в базе данных
-@Table(name = "parameters_scores") // все объекты данного класса будут храниться в таблице "parameters_scores"
+@Table(                            // все объекты данного класса будут храниться в таблице "parameters_scores"
+        name = "parameters_scores",
+        uniqueConstraints = @UniqueConstraint(  // пользователь может оценить критерий продукта только один раз
+                name = ParameterScore.PRODUCT_PARAMETER_USER_CONSTRAINT,
+                columnNames = {"product_id", "parameter_id", "user_id"}
+        )
+)
 public class ParameterScore {
 
+    public static final String PRODUCT_PARAMETER_USER_CONSTRAINT =
+            "parameters_scores_product_id_parameter_id_user_id_key";
+
     @Id
     @SequenceGenerator(
             name = "parameters_scores_sequence",
             sequenceName = "parameters_scores_sequence",
-            allocationSize = 1
+            allocationSize = 50     // id выделяются пачками (pooled-lo), чтобы вставки можно было объединять в batch
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -16,14 +16,22 @@ import javax.validation.constraints.NotNull;
 @EqualsAndHashCode                  // реализует следующие методы: equals(Object other) и hashCode()
 @NoArgsConstructor                  // создаёт конструктор без параметров
 @Entity(name = "score")             // POJO, представляющий данные, которые могут быть сохранены в базе данных
-@Table(name = "scores")             // все объекты данного класса будут храниться в таблице "scores"
+@Table(                             // все объекты данного класса будут храниться в таблице "scores"
+        name = "scores",
+        uniqueConstraints = @UniqueConstraint(  // пользователь может выставить продукту только одну оценку
+                name = Score.PRODUCT_USER_CONSTRAINT,
+                columnNames = {"product_id", "user_id"}
+        )
+)
 public class Score {
 
+    public static final String PRODUCT_USER_CONSTRAINT = "scores_product_id_user_id_key";
+
     @Id
     @SequenceGenerator(
             name = "scores_sequence",
             sequenceName = "scores_sequence",
-            allocationSize = 1
+            allocationSize = 50     // id выделяются пачками (pooled-lo), чтобы вставки можно было объединять в batch
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -0,0 +1,187 @@
+package championoftaste.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+
+/**
+ * Класс, описывающий агрегированную статистику оценок продукта (поддерживается при каждом изменении оценок,
+ * поэтому для получения среднего значения не нужно загружать все оценки продукта).
+ */
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Getter                             // создаёт дефолтные геттеры автоматически для каждого поля
+@Setter                             // создаёт дефолтные сеттеры автоматически для каждого поля
+@EqualsAndHashCode                  // реализует следующие методы: equals(Object other) и hashCode()
+@NoArgsConstructor                  // создаёт конструктор без параметров
+@Entity(name = "scoreStatistics")   // POJO, представляющий данные, которые могут быть сохранены в базе данных
+@Table(name = "scores_statistics")  // все объекты данного класса будут храниться в таблице "scores_statistics"
+public class ScoreStatistics {
+
+    @Id
+    @Column(name = "product_id")
+    private Integer productId;          // id продукта, к которому относится статистика
+
+    @JsonIgnore
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", referencedColumnName = "id", insertable = false, updatable = false)
+    private Product product;            // продукт (статистика удаляется базой данных вместе с продуктом)
+
+    @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private Long version;               // версия записи (null - запись ещё не сохранена)
+
+    @Column(name = "scores_count", nullable = false)
+    private long count = 0;             // количество оценок
+
+    @Column(name = "scores_sum", nullable = false)
+    private long sum = 0;               // сумма оценок
+
+    @Column(name = "scores_sum_of_squares", nullable = false)
+    private long sumOfSquares = 0;      // сумма квадратов оценок
+
+    @Column(name = "min_score")
+    private Short min;                  // минимальная оценка (null - оценок нет)
+
+    @Column(name = "max_score")
+    private Short max;                  // максимальная оценка (null - оценок нет)
+
+    @Column(name = "expert_count", nullable = false)
+    private long expertCount = 0;       // количество экспертных оценок
+
+    @Column(name = "expert_sum", nullable = false)
+    private long expertSum = 0;         // сумма экспертных оценок
+
+    @Column(name = "consumer_count", nullable = false)
+    private long consumerCount = 0;     // количество оценок обычных потребителей
+
+    @Column(name = "consumer_sum", nullable = false)
+    private long consumerSum = 0;       // сумма оценок обычных потребителей
+
+    public ScoreStatistics(Integer productId) {
+        this.productId = productId;
+    }
+
+    public ScoreStatistics(Integer productId,
+                           long count,
+                           long sum,
+                           long sumOfSquares,
+                           Short min,
+                           Short max,
+                           long expertCount,
+                           long expertSum) {
+        this.productId = productId;
+        this.count = count;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+        this.min = min;
+        this.max = max;
+        this.expertCount = expertCount;
+        this.expertSum = expertSum;
+        this.consumerCount = count - expertCount;
+        this.consumerSum = sum - expertSum;
+    }
+
+    /**
+     * Учитывает в статистике новую оценку.
+     *
+     * @param score    значение оценки
+     * @param isExpert является ли оценка экспертной
+     */
+    public void add(short score, boolean isExpert) {
+        count++;
+        sum += score;
+        sumOfSquares += (long) score * score;
+        min = (min == null || score < min) ? score : min;
+        max = (max == null || score > max) ? score : max;
+
+        if (isExpert) {
+            expertCount++;
+            expertSum += score;
+        } else {
+            consumerCount++;
+            consumerSum += score;
+        }
+    }
+
+    /**
+     * Исключает оценку из статистики.
+     *
+     * @param score    значение оценки
+     * @param isExpert является ли оценка экспертной
+     * @return true - удалённая оценка была минимальной или максимальной и их надо пересчитать, иначе false
+     */
+    public boolean remove(short score, boolean isExpert) {
+        count--;
+        sum -= score;
+        sumOfSquares -= (long) score * score;
+
+        if (isExpert) {
+            expertCount--;
+            expertSum -= score;
+        } else {
+            consumerCount--;
+            consumerSum -= score;
+        }
+
+        if (count <= 0) {
+            min = null;
+            max = null;
+            return false;
+        }
+
+        return (min != null && score == min) || (max != null && score == max);
+    }
+
+    /**
+     * Возвращает среднее значение всех оценок продукта.
+     *
+     * @return среднее значение (0.0 - если оценок нет)
+     */
+    public double getAverage() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Возвращает среднее значение экспертных оценок продукта.
+     *
+     * @return среднее значение (0.0 - если оценок нет)
+     */
+    public double getExpertAverage() {
+        return expertCount == 0 ? 0.0 : (double) expertSum / expertCount;
+    }
+
+    /**
+     * Возвращает среднее значение оценок обычных потребителей.
+     *
+     * @return среднее значение (0.0 - если оценок нет)
+     */
+    public double getConsumerAverage() {
+        return consumerCount == 0 ? 0.0 : (double) consumerSum / consumerCount;
+    }
+
+    /**
+     * Возвращает дисперсию всех оценок продукта.
+     *
+     * @return дисперсия (0.0 - если оценок нет)
+     */
+    public double getVariance() {
+        if (count == 0) {
+            return 0.0;
+        }
+
+        double average = getAverage();
+
+        return Math.max(0.0, (double) sumOfSquares / count - average * average);
+    }
+}
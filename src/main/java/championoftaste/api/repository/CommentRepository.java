@@ -3,16 +3,48 @@ package championoftaste.api.repository;
 import championoftaste.api.model.Comment;
 import championoftaste.api.model.Product;
 import championoftaste.api.model.User;
+import championoftaste.api.response.CommentResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
+    List<Comment> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<Comment> findByTextAndProductAndUser(String text, Product product, User user);
+
+    @Query("SELECT c.product.id, c.text FROM comment c WHERE c.user.id = :userId AND c.product.id IN :productIds")
+    List<Object[]> findProductIdsAndTextsByUserIdAndProductIdIn(@Param("userId") Integer userId,
+                                                                @Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT new championoftaste.api.response.CommentResponse(c.id, c.text, c.product.id, c.user.id) " +
+            "FROM comment c WHERE c.id > :afterId ORDER BY c.id")
+    List<CommentResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT new championoftaste.api.response.CommentResponse(c.id, c.text, c.product.id, c.user.id) " +
+            "FROM comment c WHERE c.product.id = :productId AND c.id > :afterId ORDER BY c.id")
+    List<CommentResponse> findResponsesByProductId(
+            @Param("productId") Integer productId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT new championoftaste.api.response.CommentResponse(c.id, c.text, c.product.id, c.user.id) " +
+            "FROM comment c WHERE c.user.id = :userId AND c.id > :afterId ORDER BY c.id")
+    List<CommentResponse> findResponsesByUserId(
+            @Param("userId") Integer userId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
 }
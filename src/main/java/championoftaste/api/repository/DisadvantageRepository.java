@@ -2,16 +2,39 @@ package championoftaste.api.repository;
 
 import championoftaste.api.model.Disadvantage;
 import championoftaste.api.model.Nomination;
+import championoftaste.api.response.DisadvantageResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface DisadvantageRepository extends JpaRepository<Disadvantage, Integer> {
 
+    List<Disadvantage> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<Disadvantage> findByNominationAndName(Nomination nomination, String name);
+
+    @Query("SELECT new championoftaste.api.response.DisadvantageResponse(" +
+            "d.id, d.name, " + NominationRepository.NOMINATION_COLUMNS + ") " +
+            "FROM disadvantage d LEFT JOIN d.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE d.id > :afterId ORDER BY d.id")
+    List<DisadvantageResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT new championoftaste.api.response.DisadvantageResponse(" +
+            "d.id, d.name, " + NominationRepository.NOMINATION_COLUMNS + ") " +
+            "FROM disadvantage d JOIN d.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE n.id = :nominationId AND d.id > :afterId ORDER BY d.id")
+    List<DisadvantageResponse> findResponsesByNominationId(
+            @Param("nominationId") Integer nominationId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
 }
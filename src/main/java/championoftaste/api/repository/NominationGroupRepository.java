@@ -1,16 +1,28 @@
 package championoftaste.api.repository;
 
 import championoftaste.api.model.NominationGroup;
+import championoftaste.api.response.NominationGroupResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface NominationGroupRepository extends JpaRepository<NominationGroup, Integer> {
 
+    List<NominationGroup> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<NominationGroup> findByName(String name);
+
+    @Query("SELECT new championoftaste.api.response.NominationGroupResponse(" +
+            "g.id, g.name, g.photoUrl, g.isActive, g.isFinished) FROM nominationGroup g " +
+            "WHERE g.id > :afterId ORDER BY g.id")
+    List<NominationGroupResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
 }
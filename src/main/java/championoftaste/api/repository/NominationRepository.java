@@ -1,16 +1,61 @@
 package championoftaste.api.repository;
 
 import championoftaste.api.model.Nomination;
+import championoftaste.api.response.NominationResponse;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface NominationRepository extends JpaRepository<Nomination, Integer> {
 
+    List<Nomination> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<Nomination> findByName(String name);
+
+    /**
+     * Столбцы номинации и её группы в порядке параметров конструктора NominationResponse
+     * (номинация - "n", группа - "g").
+     */
+    String NOMINATION_COLUMNS =
+            "n.id, n.name, n.photoUrl, n.isActive, n.isFinished, g.id, g.name, g.photoUrl, g.isActive, g.isFinished";
+
+    @Query("SELECT new championoftaste.api.response.NominationResponse(" + NOMINATION_COLUMNS + ") " +
+            "FROM nomination n LEFT JOIN n.nominationGroup g WHERE n.id > :afterId ORDER BY n.id")
+    List<NominationResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT new championoftaste.api.response.NominationResponse(" + NOMINATION_COLUMNS + ") " +
+            "FROM nomination n JOIN n.nominationGroup g WHERE g.id = :groupId AND n.id > :afterId ORDER BY n.id")
+    List<NominationResponse> findResponsesByNominationGroupId(
+            @Param("groupId") Integer groupId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT n.id FROM nomination n WHERE n.nominationGroup.id = :groupId")
+    List<Integer> findIdsByNominationGroupId(@Param("groupId") Integer groupId);
+
+    @Query("SELECT n.id FROM nomination n WHERE n.nominationGroup.id = :groupId AND n.isFinished = false")
+    List<Integer> findUnfinishedIdsByNominationGroupId(@Param("groupId") Integer groupId);
+
+    /**
+     * Загружает номинации групп вместе с группами, продуктами и производителями продуктов одним запросом.
+     */
+    @EntityGraph(Nomination.PRODUCTS_GRAPH)
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    @Query("SELECT DISTINCT n FROM nomination n WHERE n.nominationGroup.id IN :groupIds ORDER BY n.id")
+    List<Nomination> findAllWithProductsByNominationGroupIdIn(@Param("groupIds") Collection<Integer> groupIds);
 }
@@ -0,0 +1,12 @@
+package championoftaste.api.repository;
+
+import championoftaste.api.model.NominationResults;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface NominationResultsRepository extends JpaRepository<NominationResults, Integer> {
+}
@@ -0,0 +1,66 @@
+package championoftaste.api.repository;
+
+import championoftaste.api.model.NominationVoter;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface NominationVoterRepository extends JpaRepository<NominationVoter, NominationVoter.Key> {
+
+    long countByNominationId(Integer nominationId);
+
+    @Query("SELECT COUNT(DISTINCT v.userId) FROM nominationVoter v WHERE v.nomination.nominationGroup.id = :groupId")
+    long countDistinctUserIdByNominationGroupId(@Param("groupId") Integer groupId);
+
+    @Query("SELECT v.nominationId, v.userId FROM nominationVoter v")
+    List<Object[]> findAllNominationIdsAndUserIds();
+
+    @Query("SELECT p.id, n.id, g.id FROM product p JOIN p.nomination n LEFT JOIN n.nominationGroup g")
+    List<Object[]> findAllProductNominationAndGroupIds();
+
+    @Query("SELECT p.id, n.id, g.id FROM product p JOIN p.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE p.id IN :productIds")
+    List<Object[]> findProductNominationAndGroupIdsByProductIdIn(@Param("productIds") Collection<Integer> productIds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO nomination_voters (nomination_id, user_id, scores_count) " +
+            "SELECT p.nomination_id, :userId, COUNT(*) FROM products p " +
+            "WHERE p.id IN :productIds AND p.nomination_id IS NOT NULL GROUP BY p.nomination_id " +
+            "ON CONFLICT (nomination_id, user_id) " +
+            "DO UPDATE SET scores_count = nomination_voters.scores_count + EXCLUDED.scores_count",
+            nativeQuery = true)
+    int increment(@Param("userId") Integer userId, @Param("productIds") Collection<Integer> productIds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE nomination_voters v SET scores_count = v.scores_count - c.scores_count " +
+            "FROM (SELECT p.nomination_id, COUNT(*) AS scores_count FROM products p " +
+            "WHERE p.id IN :productIds GROUP BY p.nomination_id) c " +
+            "WHERE v.nomination_id = c.nomination_id AND v.user_id = :userId",
+            nativeQuery = true)
+    int decrement(@Param("userId") Integer userId, @Param("productIds") Collection<Integer> productIds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM nomination_voters WHERE user_id = :userId AND scores_count <= 0", nativeQuery = true)
+    int deleteEmptyByUserId(@Param("userId") Integer userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO nomination_voters (nomination_id, user_id, scores_count) " +
+            "SELECT p.nomination_id, s.user_id, COUNT(*) FROM scores s JOIN products p ON p.id = s.product_id " +
+            "WHERE p.nomination_id IS NOT NULL GROUP BY p.nomination_id, s.user_id " +
+            "ON CONFLICT (nomination_id, user_id) DO NOTHING",
+            nativeQuery = true)
+    int calculateAll();
+}
@@ -2,16 +2,46 @@ package championoftaste.api.repository;
 
 import championoftaste.api.model.Nomination;
 import championoftaste.api.model.Parameter;
+import championoftaste.api.response.ParameterResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface ParameterRepository extends JpaRepository<Parameter, Integer> {
 
+    List<Parameter> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<Parameter> findByNominationAndName(Nomination nomination, String name);
+
+    @Query("SELECT new championoftaste.api.response.ParameterResponse(" +
+            "p.id, p.name, " + NominationRepository.NOMINATION_COLUMNS + ") " +
+            "FROM parameter p LEFT JOIN p.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE p.id > :afterId ORDER BY p.id")
+    List<ParameterResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT new championoftaste.api.response.ParameterResponse(" +
+            "p.id, p.name, " + NominationRepository.NOMINATION_COLUMNS + ") " +
+            "FROM parameter p JOIN p.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE n.id = :nominationId AND p.id > :afterId ORDER BY p.id")
+    List<ParameterResponse> findResponsesByNominationId(
+            @Param("nominationId") Integer nominationId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT p.id, p.weight FROM parameter p")
+    List<Object[]> findAllIdsAndWeights();
+
+    @Query("SELECT p.id FROM parameter p WHERE p.id IN :ids")
+    List<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -4,16 +4,87 @@ import championoftaste.api.model.Parameter;
 import championoftaste.api.model.Product;
 import championoftaste.api.model.ParameterScore;
 import championoftaste.api.model.User;
+import championoftaste.api.response.ParameterScoreResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface ParameterScoreRepository extends JpaRepository<ParameterScore, Integer> {
 
+    List<ParameterScore> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<ParameterScore> findByProductAndParameterAndUser(Product product, Parameter parameter, User user);
+
+    @Query("SELECT ps.product.id, ps.parameter.id FROM parameterScore ps " +
+            "WHERE ps.user.id = :userId AND ps.product.id IN :productIds AND ps.parameter.id IN :parameterIds")
+    List<Object[]> findProductIdsAndParameterIdsByUserIdAndProductIdInAndParameterIdIn(
+            @Param("userId") Integer userId,
+            @Param("productIds") Collection<Integer> productIds,
+            @Param("parameterIds") Collection<Integer> parameterIds
+    );
+
+    @Query("SELECT ps.product.id, ps.parameter.id, ps.score FROM parameterScore ps " +
+            "WHERE ps.user.id = :userId AND ps.product.id IN :productIds AND ps.parameter.id IN :parameterIds")
+    List<Object[]> findProductIdsParameterIdsAndScoresByUserIdAndProductIdInAndParameterIdIn(
+            @Param("userId") Integer userId,
+            @Param("productIds") Collection<Integer> productIds,
+            @Param("parameterIds") Collection<Integer> parameterIds
+    );
+
+    @Query("SELECT ps.product.id, ps.parameter.id, COUNT(ps), SUM(ps.score) FROM parameterScore ps " +
+            "GROUP BY ps.product.id, ps.parameter.id")
+    List<Object[]> calculateAllCountsAndSums();
+
+    /**
+     * Сгруппированные оценки критериев номинации по всем парам (продукт, критерий), в том числе без оценок.
+     */
+    @Query("SELECT p.id, p.name, pa.id, pa.name, COUNT(ps.id), COALESCE(SUM(ps.score), 0), " +
+            "COALESCE(SUM(ps.score * ps.score), 0) " +
+            "FROM product p JOIN parameter pa ON pa.nomination = p.nomination " +
+            "LEFT JOIN parameterScore ps ON ps.product = p AND ps.parameter = pa " +
+            "WHERE p.nomination.id = :nominationId " +
+            "GROUP BY p.id, p.name, pa.id, pa.name ORDER BY p.id, pa.id")
+    List<Object[]> calculateMatrixByNominationId(@Param("nominationId") Integer nominationId);
+
+    @Query("SELECT new championoftaste.api.response.ParameterScoreResponse(" +
+            "ps.id, ps.score, ps.product.id, ps.parameter.id, ps.user.id) FROM parameterScore ps " +
+            "WHERE ps.id > :afterId ORDER BY ps.id")
+    List<ParameterScoreResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT new championoftaste.api.response.ParameterScoreResponse(" +
+            "ps.id, ps.score, ps.product.id, ps.parameter.id, ps.user.id) FROM parameterScore ps " +
+            "WHERE ps.product.id = :productId AND ps.id > :afterId ORDER BY ps.id")
+    List<ParameterScoreResponse> findResponsesByProductId(
+            @Param("productId") Integer productId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT new championoftaste.api.response.ParameterScoreResponse(" +
+            "ps.id, ps.score, ps.product.id, ps.parameter.id, ps.user.id) FROM parameterScore ps " +
+            "WHERE ps.parameter.id = :parameterId AND ps.id > :afterId ORDER BY ps.id")
+    List<ParameterScoreResponse> findResponsesByParameterId(
+            @Param("parameterId") Integer parameterId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT new championoftaste.api.response.ParameterScoreResponse(" +
+            "ps.id, ps.score, ps.product.id, ps.parameter.id, ps.user.id) FROM parameterScore ps " +
+            "WHERE ps.user.id = :userId AND ps.id > :afterId ORDER BY ps.id")
+    List<ParameterScoreResponse> findResponsesByUserId(
+            @Param("userId") Integer userId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
 }
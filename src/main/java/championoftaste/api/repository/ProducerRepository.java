@@ -1,16 +1,27 @@
 package championoftaste.api.repository;
 
 import championoftaste.api.model.Producer;
+import championoftaste.api.response.ProducerResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface ProducerRepository extends JpaRepository<Producer, Integer> {
 
+    List<Producer> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<Producer> findByName(String name);
+
+    @Query("SELECT new championoftaste.api.response.ProducerResponse(p.id, p.name, p.director) " +
+            "FROM producer p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProducerResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
 }
@@ -2,20 +2,67 @@ package championoftaste.api.repository;
 
 import championoftaste.api.model.Producer;
 import championoftaste.api.model.Product;
+import championoftaste.api.response.ProductResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
+    List<Product> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<Product> findByProducerAndName(Producer producer, String name);
 
     //TODO: удалить
 //    @Query(value = "SELECT * FROM PRODUCTS WHERE IS_FINALIST = true", nativeQuery = true)
 //    Optional<List<Product>> findByFinalistIsTrue();
+
+    @Query("SELECT new championoftaste.api.response.ProductResponse(" +
+            "p.id, p.name, p.photoUrl, pr.id, pr.name, pr.director, " + NominationRepository.NOMINATION_COLUMNS + ") " +
+            "FROM product p JOIN p.producer pr LEFT JOIN p.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT new championoftaste.api.response.ProductResponse(" +
+            "p.id, p.name, p.photoUrl, pr.id, pr.name, pr.director, " + NominationRepository.NOMINATION_COLUMNS + ") " +
+            "FROM product p JOIN p.producer pr JOIN p.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE n.id = :nominationId AND p.id > :afterId ORDER BY p.id")
+    List<ProductResponse> findResponsesByNominationId(
+            @Param("nominationId") Integer nominationId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT new championoftaste.api.response.ProductResponse(" +
+            "p.id, p.name, p.photoUrl, pr.id, pr.name, pr.director, " + NominationRepository.NOMINATION_COLUMNS + ") " +
+            "FROM product p JOIN p.producer pr LEFT JOIN p.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE pr.id = :producerId AND p.id > :afterId ORDER BY p.id")
+    List<ProductResponse> findResponsesByProducerId(
+            @Param("producerId") Integer producerId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT p.id FROM product p WHERE p.id IN :ids")
+    List<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT p.id, p.name FROM product p WHERE p.nomination.id = :nominationId ORDER BY p.id")
+    List<Object[]> findIdsAndNamesByNominationId(@Param("nominationId") Integer nominationId);
+
+    @Query("SELECT DISTINCT p.nomination.id FROM product p WHERE p.id IN :ids")
+    List<Integer> findNominationIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT p.id FROM product p JOIN p.nomination n LEFT JOIN n.nominationGroup g " +
+            "WHERE p.id IN :ids AND (n.isFinished = true OR g.isFinished = true)")
+    List<Integer> findFinishedIdsByIdIn(@Param("ids") Collection<Integer> ids);
 }
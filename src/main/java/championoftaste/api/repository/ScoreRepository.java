@@ -3,11 +3,16 @@ package championoftaste.api.repository;
 import championoftaste.api.model.Product;
 import championoftaste.api.model.Score;
 import championoftaste.api.model.User;
+import championoftaste.api.response.ScoreResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +20,37 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public interface ScoreRepository extends JpaRepository<Score, Integer> {
 
+    List<Score> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<Score> findByProductAndUser(Product product, User user);
 
     Optional<List<Score>> findAllByProduct(Product product);
+
+    @Query("SELECT s.product.id FROM score s WHERE s.user.id = :userId AND s.product.id IN :productIds")
+    List<Integer> findProductIdsByUserIdAndProductIdIn(@Param("userId") Integer userId,
+                                                       @Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT s.product.id, s.score FROM score s WHERE s.user.id = :userId AND s.product.id IN :productIds")
+    List<Object[]> findProductIdsAndScoresByUserIdAndProductIdIn(@Param("userId") Integer userId,
+                                                                 @Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT new championoftaste.api.response.ScoreResponse(s.id, s.score, s.product.id, s.user.id, s.isExpert) " +
+            "FROM score s WHERE s.id > :afterId ORDER BY s.id")
+    List<ScoreResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT new championoftaste.api.response.ScoreResponse(s.id, s.score, s.product.id, s.user.id, s.isExpert) " +
+            "FROM score s WHERE s.product.id = :productId AND s.id > :afterId ORDER BY s.id")
+    List<ScoreResponse> findResponsesByProductId(
+            @Param("productId") Integer productId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT new championoftaste.api.response.ScoreResponse(s.id, s.score, s.product.id, s.user.id, s.isExpert) " +
+            "FROM score s WHERE s.user.id = :userId AND s.id > :afterId ORDER BY s.id")
+    List<ScoreResponse> findResponsesByUserId(
+            @Param("userId") Integer userId,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
 }
@@ -0,0 +1,78 @@
+package championoftaste.api.repository;
+
+import championoftaste.api.model.ScoreStatistics;
+import championoftaste.api.response.ProductResult;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ScoreStatisticsRepository extends JpaRepository<ScoreStatistics, Integer> {
+
+    /**
+     * Создаёт пустую статистику продуктов, у которых её ещё нет (одновременные первые оценки продукта
+     * не пытаются создать одну и ту же запись).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scores_statistics (product_id, version, scores_count, scores_sum, " +
+            "scores_sum_of_squares, expert_count, expert_sum, consumer_count, consumer_sum) " +
+            "SELECT p.id, 0, 0, 0, 0, 0, 0, 0, 0 FROM products p WHERE p.id IN :productIds " +
+            "ON CONFLICT (product_id) DO NOTHING",
+            nativeQuery = true)
+    int insertMissing(@Param("productIds") Collection<Integer> productIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ScoreStatistics> findAllByProductIdInOrderByProductId(Collection<Integer> productIds);
+
+    @Query("SELECT new championoftaste.api.model.ScoreStatistics(" +
+            "s.product.id, COUNT(s), SUM(s.score), SUM(s.score * s.score), MIN(s.score), MAX(s.score), " +
+            "SUM(CASE WHEN s.isExpert = true THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN s.isExpert = true THEN s.score ELSE 0 END)) " +
+            "FROM score s GROUP BY s.product.id")
+    List<ScoreStatistics> calculateAll();
+
+    @Query("SELECT new championoftaste.api.model.ScoreStatistics(" +
+            "s.product.id, COUNT(s), SUM(s.score), SUM(s.score * s.score), MIN(s.score), MAX(s.score), " +
+            "SUM(CASE WHEN s.isExpert = true THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN s.isExpert = true THEN s.score ELSE 0 END)) " +
+            "FROM score s WHERE s.product.id IN :productIds GROUP BY s.product.id")
+    List<ScoreStatistics> calculateAllByProductIdIn(@Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT new championoftaste.api.response.ProductResult(" +
+            "p.id, p.name, COALESCE(st.count, 0), COALESCE(st.sum, 0), " +
+            "COALESCE(st.expertCount, 0), COALESCE(st.expertSum, 0)) " +
+            "FROM product p LEFT JOIN scoreStatistics st ON st.productId = p.id " +
+            "WHERE p.nomination.id = :nominationId")
+    List<ProductResult> findResultsByNominationId(@Param("nominationId") Integer nominationId);
+
+    /**
+     * Столбцы рейтинга продуктов: id продукта, id номинации, количество и сумма оценок.
+     */
+    String RANKING_COLUMNS = "SELECT p.id, n.id, COALESCE(st.count, 0), COALESCE(st.sum, 0) " +
+            "FROM product p JOIN p.nomination n LEFT JOIN scoreStatistics st ON st.productId = p.id";
+
+    @Query(RANKING_COLUMNS)
+    List<Object[]> findAllRankings();
+
+    @Query(RANKING_COLUMNS + " WHERE p.id IN :productIds")
+    List<Object[]> findRankingsByProductIdIn(@Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT st.productId, st.expertCount, st.expertSum, st.consumerCount, st.consumerSum " +
+            "FROM scoreStatistics st")
+    List<Object[]> findAllExpertAndConsumerSums();
+
+    @Query("SELECT MIN(s.score), MAX(s.score) FROM score s WHERE s.product.id = :productId")
+    List<Object[]> calculateMinAndMax(@Param("productId") Integer productId);
+}
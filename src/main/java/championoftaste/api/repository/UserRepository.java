@@ -1,20 +1,32 @@
 package championoftaste.api.repository;
 
 import championoftaste.api.model.User;
+import championoftaste.api.response.UserResponse;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 @Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Integer> {
 
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     Optional<User> findByEmail(String email);
 
     Optional<User> findByPhone(String phone);
 
     Optional<User> findByEmailOrPhone(String email, String phone);
+
+    @Query("SELECT new championoftaste.api.response.UserResponse(" +
+            "u.id, u.role, u.name, u.surname, u.patronymic, u.gender, u.age, u.phone, u.email, u.info, u.deviceId) " +
+            "FROM user u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findAllResponses(@Param("afterId") Integer afterId, Pageable pageable);
 }
@@ -0,0 +1,35 @@
+package championoftaste.api.response;
+
+import championoftaste.api.BulkItemStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий итог обработки одного элемента массовой отправки в ответах API.
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class BulkItemResponse {
+
+    private final int index;                // номер элемента в отправке (с нуля)
+    private final BulkItemStatus status;    // итог обработки элемента
+    private final Integer id;               // id сохранённого элемента (null - элемент не сохранён)
+    private final String message;           // причина, по которой элемент не сохранён
+
+    public static BulkItemResponse created(int index, Integer id) {
+        return new BulkItemResponse(index, BulkItemStatus.CREATED, id, null);
+    }
+
+    public static BulkItemResponse duplicate(int index, String message) {
+        return new BulkItemResponse(index, BulkItemStatus.DUPLICATE, null, message);
+    }
+
+    public static BulkItemResponse invalid(int index, String message) {
+        return new BulkItemResponse(index, BulkItemStatus.INVALID, null, message);
+    }
+}
@@ -0,0 +1,23 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий статистику использования кеша в ответах API.
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class CacheStatisticsResponse {
+
+    private final String name;          // название кеша
+    private final long size;            // текущее количество записей в кеше
+    private final long hitCount;        // количество обращений, обслуженных кешем
+    private final long missCount;       // количество обращений, потребовавших запроса к базе данных
+    private final double hitRate;       // доля обращений, обслуженных кешем (1.0 - если обращений не было)
+    private final long evictionCount;   // количество записей, вытесненных из-за ограничения размера или времени жизни
+}
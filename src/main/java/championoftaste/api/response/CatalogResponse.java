@@ -0,0 +1,23 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Класс, описывающий весь справочник конкурса в ответах API: группы номинаций с номинациями и продуктами,
+ * а также критерии оценивания и недостатки продуктов.
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class CatalogResponse {
+
+    private final List<NominationGroupTreeResponse> groups;     // группы номинаций с номинациями и продуктами
+    private final List<ParameterResponse> parameters;           // критерии оценивания продуктов
+    private final List<DisadvantageResponse> disadvantages;     // недостатки продуктов
+}
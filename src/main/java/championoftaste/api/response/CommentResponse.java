@@ -0,0 +1,21 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий комментарий в ответах API (продукт и пользователь представлены своими id).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class CommentResponse {
+
+    private final Integer id;           // id комментария
+    private final String text;          // текст комментария
+    private final Integer productId;    // id продукта, к которому относится комментарий
+    private final Integer userId;       // id пользователя, который оставил комментарий
+}
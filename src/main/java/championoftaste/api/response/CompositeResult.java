@@ -0,0 +1,37 @@
+package championoftaste.api.response;
+
+import championoftaste.api.statistics.ProductScores;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Класс, описывающий итоговую оценку продукта в номинации (строка таблицы итоговых результатов).
+ * Средние значения равны null, если у продукта нет оценок этого вида.
+ */
+@Getter                 // создаёт дефолтные геттеры автоматически для каждого поля класса
+public class CompositeResult {
+
+    private final Integer productId;        // id продукта
+    private final String productName;       // название продукта
+    private final long expertVotesCount;    // количество экспертных оценок
+    private final Double expertAverage;     // среднее значение экспертных оценок
+    private final long consumerVotesCount;  // количество оценок обычных потребителей
+    private final Double consumerAverage;   // среднее значение оценок обычных потребителей
+    private final Double parameterAverage;  // взвешенное (весами критериев) среднее оценок критериев
+    private final double composite;         // итоговая оценка
+
+    @Setter
+    private int rank;                       // место продукта в номинации (продукты с равной оценкой делят место)
+
+    public CompositeResult(Integer productId, String productName, ProductScores.Result result) {
+        this.productId = productId;
+        this.productName = productName;
+        this.expertVotesCount = result.getExpertVotesCount();
+        this.expertAverage = result.getExpertAverage();
+        this.consumerVotesCount = result.getConsumerVotesCount();
+        this.consumerAverage = result.getConsumerAverage();
+        this.parameterAverage = result.getParameterAverage();
+        this.composite = result.getComposite();
+    }
+}
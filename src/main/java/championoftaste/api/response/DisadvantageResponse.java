@@ -0,0 +1,50 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий недостаток, который можно выделить у продуктов номинации в ответах API (вместе с номинацией).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class DisadvantageResponse {
+
+    private final Integer id;                       // id недостатка
+    private final String name;                      // название недостатка
+    private final NominationResponse nomination;    // номинация, у продуктов которой можно выделить недостаток
+
+    public DisadvantageResponse(Integer id,
+                                String name,
+                                Integer nominationId,
+                                String nominationName,
+                                String nominationPhotoUrl,
+                                Boolean nominationIsActive,
+                                Boolean nominationIsFinished,
+                                Integer groupId,
+                                String groupName,
+                                String groupPhotoUrl,
+                                Boolean groupIsActive,
+                                Boolean groupIsFinished) {
+        this(
+                id,
+                name,
+                NominationResponse.of(
+                        nominationId,
+                        nominationName,
+                        nominationPhotoUrl,
+                        nominationIsActive,
+                        nominationIsFinished,
+                        groupId,
+                        groupName,
+                        groupPhotoUrl,
+                        groupIsActive,
+                        groupIsFinished
+                )
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий группу номинаций в ответах API (без связанных номинаций).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class NominationGroupResponse {
+
+    private final Integer id;           // id группы номинаций
+    private final String name;          // название группы номинаций
+    private final String photoUrl;      // URL фота группы номинаций
+    private final boolean isActive;     // доступна ли группа номинаций для голосования
+    private final boolean isFinished;   // завершено ли голосование в группе номинаций
+
+    /**
+     * Создаёт группу номинаций по столбцам внешнего соединения (все значения null - группы нет).
+     */
+    static NominationGroupResponse of(Integer id, String name, String photoUrl, Boolean isActive, Boolean isFinished) {
+        return id != null ? new NominationGroupResponse(id, name, photoUrl, isActive, isFinished) : null;
+    }
+}
@@ -0,0 +1,34 @@
+package championoftaste.api.response;
+
+import championoftaste.api.model.NominationGroup;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Класс, описывающий дерево группы номинаций: группа, её номинации, их продукты и производители продуктов.
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+public class NominationGroupTreeResponse {
+
+    private final Integer id;                               // id группы номинаций
+    private final String name;                              // название группы номинаций
+    private final String photoUrl;                          // URL фота группы номинаций
+    private final boolean isActive;                         // доступна ли группа номинаций для голосования
+    private final boolean isFinished;                       // завершено ли голосование в группе номинаций
+    private final List<NominationTreeResponse> nominations; // номинации группы
+
+    public NominationGroupTreeResponse(NominationGroup nominationGroup, List<NominationTreeResponse> nominations) {
+        this.id = nominationGroup.getId();
+        this.name = nominationGroup.getName();
+        this.photoUrl = nominationGroup.getPhotoUrl();
+        this.isActive = nominationGroup.isActive();
+        this.isFinished = nominationGroup.isFinished();
+        this.nominations = nominations;
+    }
+}
@@ -0,0 +1,72 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий номинацию в ответах API (вместе с группой, без продуктов, параметров и недостатков).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class NominationResponse {
+
+    private final Integer id;                               // id номинации
+    private final String name;                              // название номинации
+    private final String photoUrl;                          // URL фота номинации
+    private final boolean isActive;                         // доступна ли номинация для голосования
+    private final boolean isFinished;                       // завершено ли голосование в номинации
+    private final NominationGroupResponse nominationGroup;  // группа, к которой относится номинация
+
+    public NominationResponse(Integer id,
+                              String name,
+                              String photoUrl,
+                              boolean isActive,
+                              boolean isFinished,
+                              Integer groupId,
+                              String groupName,
+                              String groupPhotoUrl,
+                              Boolean groupIsActive,
+                              Boolean groupIsFinished) {
+        this(
+                id,
+                name,
+                photoUrl,
+                isActive,
+                isFinished,
+                NominationGroupResponse.of(groupId, groupName, groupPhotoUrl, groupIsActive, groupIsFinished)
+        );
+    }
+
+    /**
+     * Создаёт номинацию по столбцам внешнего соединения (все значения null - номинации нет).
+     */
+    static NominationResponse of(Integer id,
+                                 String name,
+                                 String photoUrl,
+                                 Boolean isActive,
+                                 Boolean isFinished,
+                                 Integer groupId,
+                                 String groupName,
+                                 String groupPhotoUrl,
+                                 Boolean groupIsActive,
+                                 Boolean groupIsFinished) {
+        return id != null
+                ? new NominationResponse(
+                        id,
+                        name,
+                        photoUrl,
+                        isActive,
+                        isFinished,
+                        groupId,
+                        groupName,
+                        groupPhotoUrl,
+                        groupIsActive,
+                        groupIsFinished
+                )
+                : null;
+    }
+}
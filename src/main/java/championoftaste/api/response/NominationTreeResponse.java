@@ -0,0 +1,41 @@
+package championoftaste.api.response;
+
+import championoftaste.api.model.Nomination;
+import championoftaste.api.model.Product;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Класс, описывающий номинацию в дереве группы номинаций (вместе с продуктами).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+public class NominationTreeResponse {
+
+    private final Integer id;                           // id номинации
+    private final String name;                          // название номинации
+    private final String photoUrl;                      // URL фота номинации
+    private final boolean isActive;                     // доступна ли номинация для голосования
+    private final boolean isFinished;                   // завершено ли голосование в номинации
+    private final List<ProductTreeResponse> products;   // продукты, представленные в номинации
+
+    public NominationTreeResponse(Nomination nomination) {
+        this.id = nomination.getId();
+        this.name = nomination.getName();
+        this.photoUrl = nomination.getPhotoUrl();
+        this.isActive = nomination.isActive();
+        this.isFinished = nomination.isFinished();
+        this.products = nomination.getProducts()
+                .stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .map(ProductTreeResponse::new)
+                .collect(Collectors.toList());
+    }
+}
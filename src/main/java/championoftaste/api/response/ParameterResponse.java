@@ -0,0 +1,50 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий параметр (критерий) оценивания в ответах API (вместе с номинацией).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class ParameterResponse {
+
+    private final Integer id;                       // id параметра (критерия)
+    private final String name;                      // название параметра (критерия)
+    private final NominationResponse nomination;    // номинация, к которой относится параметр
+
+    public ParameterResponse(Integer id,
+                             String name,
+                             Integer nominationId,
+                             String nominationName,
+                             String nominationPhotoUrl,
+                             Boolean nominationIsActive,
+                             Boolean nominationIsFinished,
+                             Integer groupId,
+                             String groupName,
+                             String groupPhotoUrl,
+                             Boolean groupIsActive,
+                             Boolean groupIsFinished) {
+        this(
+                id,
+                name,
+                NominationResponse.of(
+                        nominationId,
+                        nominationName,
+                        nominationPhotoUrl,
+                        nominationIsActive,
+                        nominationIsFinished,
+                        groupId,
+                        groupName,
+                        groupPhotoUrl,
+                        groupIsActive,
+                        groupIsFinished
+                )
+        );
+    }
+}
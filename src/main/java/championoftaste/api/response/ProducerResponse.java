@@ -0,0 +1,20 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий производителя в ответах API (без продуктов).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class ProducerResponse {
+
+    private final Integer id;       // id производителя
+    private final String name;      // полное наименование организации-производителя
+    private final String director;  // информация о начальнике предприятия
+}
@@ -0,0 +1,58 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий продукт в ответах API (вместе с производителем и номинацией, без оценок и комментариев).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class ProductResponse {
+
+    private final Integer id;                       // id продукта
+    private final String name;                      // название продукта
+    private final String photoUrl;                  // URL фота продукта
+    private final ProducerResponse producer;        // производитель продукта
+    private final NominationResponse nomination;    // номинация, в которой представлен продукт
+
+    public ProductResponse(Integer id,
+                           String name,
+                           String photoUrl,
+                           Integer producerId,
+                           String producerName,
+                           String producerDirector,
+                           Integer nominationId,
+                           String nominationName,
+                           String nominationPhotoUrl,
+                           Boolean nominationIsActive,
+                           Boolean nominationIsFinished,
+                           Integer groupId,
+                           String groupName,
+                           String groupPhotoUrl,
+                           Boolean groupIsActive,
+                           Boolean groupIsFinished) {
+        this(
+                id,
+                name,
+                photoUrl,
+                new ProducerResponse(producerId, producerName, producerDirector),
+                NominationResponse.of(
+                        nominationId,
+                        nominationName,
+                        nominationPhotoUrl,
+                        nominationIsActive,
+                        nominationIsFinished,
+                        groupId,
+                        groupName,
+                        groupPhotoUrl,
+                        groupIsActive,
+                        groupIsFinished
+                )
+        );
+    }
+}
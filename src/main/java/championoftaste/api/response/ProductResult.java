@@ -0,0 +1,42 @@
+package championoftaste.api.response;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий результат продукта в номинации (строка таблицы результатов).
+ */
+@Getter                 // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode      // реализует следующие методы: equals(Object other) и hashCode()
+@ToString               // реализует метод toString()
+public class ProductResult {
+
+    private final Integer productId;        // id продукта
+    private final String productName;       // название продукта
+    private final long votesCount;          // количество оценок
+    private final double average;           // среднее значение всех оценок
+    private final long consumerVotesCount;  // количество оценок обычных потребителей
+    private final double consumerAverage;   // среднее значение оценок обычных потребителей
+    private final long expertVotesCount;    // количество экспертных оценок
+    private final double expertAverage;     // среднее значение экспертных оценок
+
+    @Setter
+    private int rank;                       // место продукта в номинации (продукты с равным средним делят место)
+
+    public ProductResult(Integer productId, String productName, long count, long sum, long expertCount, long expertSum) {
+        this.productId = productId;
+        this.productName = productName;
+        this.votesCount = count;
+        this.average = average(sum, count);
+        this.consumerVotesCount = count - expertCount;
+        this.consumerAverage = average(sum - expertSum, count - expertCount);
+        this.expertVotesCount = expertCount;
+        this.expertAverage = average(expertSum, expertCount);
+    }
+
+    private static double average(long sum, long count) {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+}
@@ -0,0 +1,31 @@
+package championoftaste.api.response;
+
+import championoftaste.api.model.Producer;
+import championoftaste.api.model.Product;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий продукт в дереве группы номинаций (вместе с производителем, номинация известна из дерева).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+public class ProductTreeResponse {
+
+    private final Integer id;                   // id продукта
+    private final String name;                  // название продукта
+    private final String photoUrl;              // URL фота продукта
+    private final ProducerResponse producer;    // производитель продукта
+
+    public ProductTreeResponse(Product product) {
+        Producer producer = product.getProducer();
+
+        this.id = product.getId();
+        this.name = product.getName();
+        this.photoUrl = product.getPhotoUrl();
+        this.producer = new ProducerResponse(producer.getId(), producer.getName(), producer.getDirector());
+    }
+}
@@ -0,0 +1,22 @@
+package championoftaste.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий оценку продукта в ответах API (продукт и пользователь представлены своими id).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class ScoreResponse {
+
+    private final Integer id;           // id оценки
+    private final Short score;          // значение оценки
+    private final Integer productId;    // id продукта, к которому относится оценка
+    private final Integer userId;       // id пользователя, который выставил оценку
+    private final boolean isExpert;     // является ли оценка экспертной
+}
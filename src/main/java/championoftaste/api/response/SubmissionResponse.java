@@ -0,0 +1,27 @@
+package championoftaste.api.response;
+
+import championoftaste.api.SubmissionStatus;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий состояние отправки оценок, принятой на асинхронную запись, в ответах API.
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class SubmissionResponse {
+
+    private final String id;                // id отправки
+    private final SubmissionStatus status;  // состояние отправки
+    private final String message;           // причина отклонения отправки
+
+    @JsonIgnore
+    private final Integer userId;           // id пользователя, который выставил оценки
+}
@@ -0,0 +1,54 @@
+package championoftaste.api.response;
+
+import championoftaste.api.UserRole;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Класс, описывающий пользователя в ответах API (без пароля и без оценок и комментариев).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+@EqualsAndHashCode  // реализует следующие методы: equals(Object other) и hashCode()
+@ToString           // реализует метод toString()
+public class UserResponse {
+
+    private final Integer id;           // id пользователя
+    private final UserRole role;        // роль пользователя
+    private final String name;          // имя пользователя
+    private final String surname;       // фамилия пользователя
+    private final String patronymic;    // отчество пользователя
+    private final short gender;         // пол (стандарт ISO 5218)
+    private final short age;            // возраст пользователя
+    private final String phone;         // контактный номер телефона пользователя
+    private final String email;         // адрес электронной почты пользователя
+    private final String info;          // дополнительная информация о пользователе
+    private final String deviceId;      // Android ID устройства, с которого вошёл пользователь
+    private final String username;      // имя пользователя (email или номер телефона)
+
+    public UserResponse(Integer id,
+                        UserRole role,
+                        String name,
+                        String surname,
+                        String patronymic,
+                        short gender,
+                        short age,
+                        String phone,
+                        String email,
+                        String info,
+                        String deviceId) {
+        this.id = id;
+        this.role = role;
+        this.name = name;
+        this.surname = surname;
+        this.patronymic = patronymic;
+        this.gender = gender;
+        this.age = age;
+        this.phone = phone;
+        this.email = email;
+        this.info = info;
+        this.deviceId = deviceId;
+        this.username = (email == null || email.isBlank()) ? phone : email;
+    }
+}
@@ -0,0 +1,66 @@
+package championoftaste.api.service;
+
+import championoftaste.api.response.CacheStatisticsResponse;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис, предоставляющий статистику попаданий и промахов кешей и их ручную очистку.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class CacheService {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Возвращает статистику всех кешей (подсчёт ведётся с момента запуска приложения).
+     *
+     * @return статистика кешей
+     */
+    public List<CacheStatisticsResponse> readStatistics() {
+        List<CacheStatisticsResponse> statistics = new ArrayList<>();
+
+        for (String name : cacheManager.getCacheNames()) {
+            org.springframework.cache.Cache cache = cacheManager.getCache(name);
+
+            if (cache != null && cache.getNativeCache() instanceof Cache) {
+                Cache<?, ?> nativeCache = (Cache<?, ?>) cache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+
+                statistics.add(new CacheStatisticsResponse(
+                        name,
+                        nativeCache.size(),
+                        stats.hitCount(),
+                        stats.missCount(),
+                        stats.hitRate(),
+                        stats.evictionCount()
+                ));
+            }
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Очищает все кеши (например, после изменения справочников напрямую в базе данных).
+     */
+    public void clear() {
+        for (String name : cacheManager.getCacheNames()) {
+            org.springframework.cache.Cache cache = cacheManager.getCache(name);
+
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package championoftaste.api.service;
+
+import championoftaste.api.Keyset;
+import championoftaste.api.response.CatalogResponse;
+import championoftaste.api.response.DisadvantageResponse;
+import championoftaste.api.response.NominationGroupTreeResponse;
+import championoftaste.api.response.ParameterResponse;
+import championoftaste.config.CachingConfig;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сервис, формирующий снимок всего справочника конкурса, уже сериализованный в JSON (и сжатый gzip). Снимок
+ * строится один раз после каждого изменения справочника и отдаётся всем клиентам без обращения к базе данных.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class CatalogService {
+
+    private final NominationGroupService nominationGroupService;
+    private final ParameterService parameterService;
+    private final DisadvantageService disadvantageService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Возвращает актуальный снимок справочника. Снимок хранится в кеше CachingConfig.CATALOG, который очищается
+     * при любом изменении справочника (см. EvictsCatalog). При одновременных запросах после очистки снимок
+     * строит только один поток, остальные ждут его результата.
+     *
+     * @return снимок справочника
+     */
+    @Cacheable(cacheNames = CachingConfig.CATALOG, sync = true)
+    public Snapshot read() {
+        CatalogResponse catalog = new CatalogResponse(
+                Keyset.readAll(nominationGroupService::readTrees, NominationGroupTreeResponse::getId),
+                Keyset.readAll(parameterService::readAllResponses, ParameterResponse::getId),
+                Keyset.readAll(disadvantageService::readAllResponses, DisadvantageResponse::getId)
+        );
+
+        try {
+            return new Snapshot(objectMapper.writeValueAsBytes(catalog));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать справочник конкурса", e);
+        }
+    }
+
+    /**
+     * Снимок справочника: JSON, его сжатая gzip копия и строгие ETag обоих вариантов (хеш JSON, поэтому не изменяются,
+     * пока не изменится содержимое справочника). Байты вариантов различаются, поэтому различаются и их ETag.
+     */
+    @Getter // создаёт дефолтные геттеры автоматически для каждого поля
+    public static class Snapshot {
+
+        private final byte[] json;      // справочник в формате JSON
+        private final byte[] gzip;      // справочник в формате JSON, сжатый gzip
+        private final String etag;      // строгий ETag JSON (в кавычках, как в хедере ответа)
+        private final String gzipEtag;  // строгий ETag сжатого JSON
+
+        public Snapshot(byte[] json) {
+            String hash = Hashing.sha256().hashBytes(json).toString();
+
+            this.json = json;
+            this.gzip = compress(json);
+            this.etag = '"' + hash + '"';
+            this.gzipEtag = '"' + hash + "-gzip" + '"';
+        }
+
+        private static byte[] compress(byte[] bytes) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return compressed.toByteArray();
+        }
+    }
+}
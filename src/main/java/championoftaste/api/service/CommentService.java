@@ -1,10 +1,13 @@
 package championoftaste.api.service;
 
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Comment;
 import championoftaste.api.request.CommentRequest;
 import championoftaste.api.model.User;
 import championoftaste.api.repository.CommentRepository;
-import championoftaste.api.AuthorizedUser;
+import championoftaste.api.repository.ProductRepository;
+import championoftaste.api.response.BulkItemResponse;
+import championoftaste.api.response.CommentResponse;
 import championoftaste.exception.ApiRequestException;
 import championoftaste.validators.FieldsValidator;
 
@@ -12,11 +15,11 @@ import lombok.AllArgsConstructor;
 
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolation;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Сервис, реализующий CRUD (Create, Read, Update, Delete) операции над комментариями,
@@ -29,11 +32,12 @@ public class CommentService implements CrudService<Comment> {
     private final CommentRepository commentRepository;
     private final FieldsValidator<Comment> fieldsValidator = new FieldsValidator<>();
     private final UserService userService;
+    private final ProductRepository productRepository;
     
     private Comment createCommentFromCommentRequest(CommentRequest commentRequest) {
         User user;
         try {
-            user = userService.loadUserByUsername(AuthorizedUser.getUsername());
+            user = userService.loadAuthorizedReference();
         } catch (UsernameNotFoundException e) {
             throw new ApiRequestException(e.getMessage());
         }
@@ -48,7 +52,7 @@ public class CommentService implements CrudService<Comment> {
     public void create(CommentRequest commentRequest) throws ApiRequestException {
         User user;
         try {
-            user = userService.loadUserByUsername(AuthorizedUser.getUsername());
+            user = userService.loadAuthorizedReference();
         } catch (UsernameNotFoundException e) {
             throw new ApiRequestException(e.getMessage());
         }
@@ -62,6 +66,7 @@ public class CommentService implements CrudService<Comment> {
         create(comment);
     }
 
+    @Transactional
     public void create(List<CommentRequest> commentRequests) throws ApiRequestException {
         List<Comment> comments = new ArrayList<>();
 
@@ -81,7 +86,7 @@ public class CommentService implements CrudService<Comment> {
 
         User user;
         try {
-            user = userService.loadUserByUsername(AuthorizedUser.getUsername());
+            user = userService.loadAuthorizedReference();
         } catch (UsernameNotFoundException e) {
             throw new ApiRequestException(e.getMessage());
         }
@@ -95,21 +100,137 @@ public class CommentService implements CrudService<Comment> {
         return update(id, updated);
     }
 
+    /**
+     * Сохраняет корректные комментарии авторизованного пользователя и возвращает итог по каждому комментарию:
+     * некорректные комментарии и повторы не мешают сохранению остальных. Вызывается для частей отправки (см. Bulk).
+     *
+     * @param commentRequests комментарии (часть отправки)
+     * @param offset          номер первого комментария части в отправке
+     * @return итоги обработки комментариев
+     */
+    @Transactional
+    public List<BulkItemResponse> createEach(List<CommentRequest> commentRequests, int offset)
+            throws ApiRequestException {
+        BulkItemResponse[] results = new BulkItemResponse[commentRequests.size()];
+        // Комментарии, прошедшие проверку полей, по парам (id продукта, текст комментария).
+        Map<List<Object>, Integer> indexByKey = new LinkedHashMap<>();
+        List<Comment> comments = new ArrayList<>();
+
+        for (int i = 0; i < commentRequests.size(); i++) {
+            Comment comment = createCommentFromCommentRequest(commentRequests.get(i));
+            comments.add(comment);
+
+            for (ConstraintViolation<Comment> violation : fieldsValidator.validate(comment)) {
+                results[i] = BulkItemResponse.invalid(offset + i, violation.getMessage());
+                break;
+            }
+
+            if (results[i] == null && comment.getProduct().getId() == null) {
+                results[i] = BulkItemResponse.invalid(offset + i, "Не удалось найти продукт");
+            }
+
+            if (results[i] == null && indexByKey.putIfAbsent(
+                    Arrays.asList(comment.getProduct().getId(), comment.getText()),
+                    i
+            ) != null) {
+                results[i] = BulkItemResponse.duplicate(
+                        offset + i,
+                        "Вы уже оставляли точно такой же комментарий данному продукту"
+                );
+            }
+        }
+
+        Set<Integer> productIds = new HashSet<>();
+
+        for (List<Object> key : indexByKey.keySet()) {
+            productIds.add((Integer) key.get(0));
+        }
+
+        if (!indexByKey.isEmpty()) {
+            // Такие же комментарии, уже оставленные пользователем (один запрос).
+            for (Object[] existing : commentRepository
+                    .findProductIdsAndTextsByUserIdAndProductIdIn(comments.get(0).getUser().getId(), productIds)) {
+                Integer i = indexByKey.remove(Arrays.asList(existing));
+
+                if (i != null) {
+                    results[i] = BulkItemResponse.duplicate(
+                            offset + i,
+                            "Вы уже оставляли точно такой же комментарий данному продукту"
+                    );
+                }
+            }
+        }
+
+        if (!indexByKey.isEmpty()) {
+            // Несуществующие продукты (один запрос).
+            Set<Integer> existingProductIds = new HashSet<>(productRepository.findIdsByIdIn(productIds));
+            Iterator<Map.Entry<List<Object>, Integer>> iterator = indexByKey.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<List<Object>, Integer> entry = iterator.next();
+
+                if (!existingProductIds.contains((Integer) entry.getKey().get(0))) {
+                    results[entry.getValue()] = BulkItemResponse.invalid(
+                            offset + entry.getValue(),
+                            "Не удалось найти продукт"
+                    );
+                    iterator.remove();
+                }
+            }
+        }
+
+        List<Comment> created = new ArrayList<>();
+
+        for (int i : indexByKey.values()) {
+            created.add(comments.get(i));
+        }
+
+        commentRepository.saveAll(created);
+        commentRepository.flush();
+
+        for (int i : indexByKey.values()) {
+            results[i] = BulkItemResponse.created(offset + i, comments.get(i).getId());
+        }
+
+        return Arrays.asList(results);
+    }
+
+    @Transactional
     public void createAll(List<Comment> comments) {
+        // Пары (id продукта, текст комментария) по id пользователей, которые оставляют комментарии.
+        Map<Integer, Set<List<Object>>> keysByUserId = new HashMap<>();
+
         for (Comment comment : comments) {
             // Проверяем все поля создаваемого комментария на корректность.
             for (ConstraintViolation<Comment> violation : fieldsValidator.validate(comment)) {
                 throw new ApiRequestException(violation.getMessage());
             }
 
-            // Если уже существует точно такой же комментарий, оставленный тем же пользователем тому же продукту.
-            if (commentRepository
-                    .findByTextAndProductAndUser(comment.getText(), comment.getProduct(), comment.getUser())
-                    .isPresent()) {
+            // Если в одном запросе пользователь несколько раз оставляет один и тот же комментарий одному продукту.
+            if (!keysByUserId
+                    .computeIfAbsent(comment.getUser().getId(), userId -> new HashSet<>())
+                    .add(Arrays.asList(comment.getProduct().getId(), comment.getText()))) {
                 throw new ApiRequestException("Вы уже оставляли точно такой же комментарий данному продукту");
             }
         }
 
+        // Если уже существует точно такой же комментарий, оставленный тем же пользователем тому же продукту
+        // (один запрос на каждого пользователя).
+        for (Map.Entry<Integer, Set<List<Object>>> entry : keysByUserId.entrySet()) {
+            Set<Integer> productIds = new HashSet<>();
+
+            for (List<Object> key : entry.getValue()) {
+                productIds.add((Integer) key.get(0));
+            }
+
+            for (Object[] existing : commentRepository
+                    .findProductIdsAndTextsByUserIdAndProductIdIn(entry.getKey(), productIds)) {
+                if (entry.getValue().contains(Arrays.asList(existing))) {
+                    throw new ApiRequestException("Вы уже оставляли точно такой же комментарий данному продукту");
+                }
+            }
+        }
+
         commentRepository.saveAll(comments);
     }
 
@@ -131,8 +252,20 @@ public class CommentService implements CrudService<Comment> {
     }
 
     @Override
-    public List<Comment> readAll() {
-        return commentRepository.findAll();
+    public List<Comment> readAll(Integer afterId, int size) {
+        return commentRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<CommentResponse> readAllResponses(Integer afterId, int size) {
+        return commentRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<CommentResponse> readResponsesByProduct(Integer productId, Integer afterId, int size) {
+        return commentRepository.findResponsesByProductId(productId, Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<CommentResponse> readResponsesByUser(Integer userId, Integer afterId, int size) {
+        return commentRepository.findResponsesByUserId(userId, Keyset.cursor(afterId), Keyset.page(size));
     }
 
     @Override
@@ -0,0 +1,222 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.Parameter;
+import championoftaste.api.model.ParameterScore;
+import championoftaste.api.model.Score;
+import championoftaste.api.repository.ParameterRepository;
+import championoftaste.api.repository.ParameterScoreRepository;
+import championoftaste.api.repository.ProductRepository;
+import championoftaste.api.repository.ScoreStatisticsRepository;
+import championoftaste.api.response.CompositeResult;
+import championoftaste.api.statistics.ProductScores;
+import championoftaste.config.ScoringConfig;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис, считающий итоговые оценки продуктов: взвешенное (весами из ScoringConfig) среднее экспертных оценок,
+ * оценок обычных потребителей и оценок критериев (с весами критериев номинации). Суммы оценок каждого продукта
+ * хранятся в памяти и изменяются приращениями после фиксации транзакций, поэтому таблица итоговых результатов
+ * номинации не требует чтения оценок. При запуске приложения суммы строятся по статистике оценок продуктов
+ * и сгруппированным оценкам критериев.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class CompositeScoringService {
+
+    private final ScoringConfig scoringConfig;
+    private final ScoreStatisticsRepository scoreStatisticsRepository;
+    private final ParameterScoreRepository parameterScoreRepository;
+    private final ParameterRepository parameterRepository;
+    private final ProductRepository productRepository;
+
+    // Суммы оценок по id продуктов.
+    private final Map<Integer, ProductScores> products = new ConcurrentHashMap<>();
+
+    // Веса критериев по их id.
+    private final Map<Integer, Double> parameterWeights = new ConcurrentHashMap<>();
+
+    /**
+     * Возвращает таблицу итоговых результатов номинации (один запрос к продуктам, без чтения оценок).
+     *
+     * @param nominationId id номинации
+     * @return итоговые результаты продуктов номинации, упорядоченные по месту
+     */
+    public List<CompositeResult> readResults(Integer nominationId) {
+        List<CompositeResult> results = new ArrayList<>();
+
+        for (Object[] product : productRepository.findIdsAndNamesByNominationId(nominationId)) {
+            ProductScores scores = products.getOrDefault((Integer) product[0], new ProductScores());
+
+            results.add(new CompositeResult((Integer) product[0], (String) product[1], scores.calculate(
+                    parameterWeights,
+                    scoringConfig.getExpertWeight(),
+                    scoringConfig.getConsumerWeight(),
+                    scoringConfig.getParameterWeight()
+            )));
+        }
+
+        results.sort(Comparator
+                .comparingDouble(CompositeResult::getComposite).reversed()
+                .thenComparing(CompositeResult::getProductId));
+
+        for (int i = 0; i < results.size(); i++) {
+            CompositeResult result = results.get(i);
+
+            // Продукты с одинаковой итоговой оценкой делят место (1, 1, 3, ...).
+            result.setRank(i > 0 && results.get(i - 1).getComposite() == result.getComposite()
+                    ? results.get(i - 1).getRank()
+                    : i + 1);
+        }
+
+        return results;
+    }
+
+    /**
+     * Учитывает новые оценки продуктов (после фиксации транзакции, если вызывается в транзакции).
+     *
+     * @param scores добавленные оценки
+     */
+    public void addScores(Collection<Score> scores) {
+        applyScores(scores, 1);
+    }
+
+    /**
+     * Исключает удалённые оценки продуктов (после фиксации транзакции, если вызывается в транзакции).
+     *
+     * @param scores удалённые оценки
+     */
+    public void removeScores(Collection<Score> scores) {
+        applyScores(scores, -1);
+    }
+
+    /**
+     * Учитывает новые оценки критериев (после фиксации транзакции, если вызывается в транзакции).
+     *
+     * @param parameterScores добавленные оценки критериев
+     */
+    public void addParameterScores(Collection<ParameterScore> parameterScores) {
+        applyParameterScores(parameterScores, 1);
+    }
+
+    /**
+     * Исключает удалённые оценки критериев (после фиксации транзакции, если вызывается в транзакции).
+     *
+     * @param parameterScores удалённые оценки критериев
+     */
+    public void removeParameterScores(Collection<ParameterScore> parameterScores) {
+        applyParameterScores(parameterScores, -1);
+    }
+
+    /**
+     * Запоминает вес созданного или изменённого критерия.
+     *
+     * @param parameter критерий
+     */
+    public void putParameter(Parameter parameter) {
+        Integer parameterId = parameter.getId();
+        double weight = parameter.getWeight();
+
+        AfterCommit.run(() -> parameterWeights.put(parameterId, weight));
+    }
+
+    /**
+     * Исключает удалённый критерий и его оценки.
+     *
+     * @param parameterId id критерия
+     */
+    public void removeParameter(Integer parameterId) {
+        AfterCommit.run(() -> {
+            parameterWeights.remove(parameterId);
+
+            for (ProductScores scores : products.values()) {
+                scores.removeParameter(parameterId);
+            }
+        });
+    }
+
+    /**
+     * Исключает удалённый продукт.
+     *
+     * @param productId id продукта
+     */
+    public void removeProduct(Integer productId) {
+        AfterCommit.run(() -> products.remove(productId));
+    }
+
+    /**
+     * Строит суммы оценок всех продуктов (три запроса). Выполняется после заполнения статистики оценок.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)   // после заполнения статистики оценок
+    public synchronized void rebuild() {
+        products.clear();
+        parameterWeights.clear();
+
+        for (Object[] row : parameterRepository.findAllIdsAndWeights()) {
+            parameterWeights.put((Integer) row[0], ((Number) row[1]).doubleValue());
+        }
+
+        for (Object[] row : scoreStatisticsRepository.findAllExpertAndConsumerSums()) {
+            getProductScores((Integer) row[0]).setScores(
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue(),
+                    ((Number) row[4]).longValue()
+            );
+        }
+
+        for (Object[] row : parameterScoreRepository.calculateAllCountsAndSums()) {
+            getProductScores((Integer) row[0]).addParameterScores(
+                    (Integer) row[1],
+                    ((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue()
+            );
+        }
+    }
+
+    private void applyScores(Collection<Score> scores, int sign) {
+        List<int[]> deltas = new ArrayList<>();     // id продукта, значение оценки, 1 - оценка экспертная
+
+        for (Score score : scores) {
+            deltas.add(new int[]{score.getProduct().getId(), score.getScore(), score.isExpert() ? 1 : 0});
+        }
+
+        AfterCommit.run(() -> {
+            for (int[] delta : deltas) {
+                getProductScores(delta[0]).addScore(delta[1], delta[2] == 1, sign);
+            }
+        });
+    }
+
+    private void applyParameterScores(Collection<ParameterScore> parameterScores, int sign) {
+        List<int[]> deltas = new ArrayList<>();     // id продукта, id критерия, значение оценки
+
+        for (ParameterScore parameterScore : parameterScores) {
+            deltas.add(new int[]{
+                    parameterScore.getProduct().getId(),
+                    parameterScore.getParameter().getId(),
+                    parameterScore.getScore()
+            });
+        }
+
+        AfterCommit.run(() -> {
+            for (int[] delta : deltas) {
+                getProductScores(delta[0]).addParameterScores(delta[1], sign, sign * delta[2]);
+            }
+        });
+    }
+
+    private ProductScores getProductScores(Integer productId) {
+        return products.computeIfAbsent(productId, id -> new ProductScores());
+    }
+}
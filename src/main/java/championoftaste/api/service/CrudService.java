@@ -20,11 +20,13 @@ public interface CrudService<T> {
     void create(T entity) throws ApiRequestException;
 
     /**
-     * Возвращает список имеющихся объектов (сущностей).
+     * Возвращает страницу списка имеющихся объектов (сущностей), упорядоченного по id.
      *
-     * @return список объектов (сущностей)
+     * @param afterId - id, после которого начинается страница (null - с начала списка)
+     * @param size    - размер страницы (не больше Keyset.MAX_SIZE)
+     * @return страница списка объектов (сущностей)
      */
-    List<T> readAll();
+    List<T> readAll(Integer afterId, int size);
 
     /**
      * Возвращает объект (сущность) по заданному id.
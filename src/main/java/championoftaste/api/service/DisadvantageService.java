@@ -1,12 +1,16 @@
 package championoftaste.api.service;
 
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Disadvantage;
 import championoftaste.api.repository.DisadvantageRepository;
+import championoftaste.api.response.DisadvantageResponse;
+import championoftaste.config.CachingConfig;
 import championoftaste.exception.ApiRequestException;
 import championoftaste.validators.FieldsValidator;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import javax.validation.ConstraintViolation;
@@ -24,6 +28,7 @@ public class DisadvantageService implements CrudService<Disadvantage> {
     private final FieldsValidator<Disadvantage> fieldsValidator = new FieldsValidator<>();
 
     @Override
+    @EvictsCatalog
     public void create(Disadvantage disadvantage) throws ApiRequestException {
         // Проверяем все поля создаваемого недостатка на корректность.
         for (ConstraintViolation<Disadvantage> violation : fieldsValidator.validate(disadvantage)) {
@@ -41,8 +46,18 @@ public class DisadvantageService implements CrudService<Disadvantage> {
     }
 
     @Override
-    public List<Disadvantage> readAll() {
-        return disadvantageRepository.findAll();
+    public List<Disadvantage> readAll(Integer afterId, int size) {
+        return disadvantageRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    @Cacheable(CachingConfig.DISADVANTAGES)
+    public List<DisadvantageResponse> readAllResponses(Integer afterId, int size) {
+        return disadvantageRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    @Cacheable(CachingConfig.DISADVANTAGES)
+    public List<DisadvantageResponse> readResponsesByNomination(Integer nominationId, Integer afterId, int size) {
+        return disadvantageRepository.findResponsesByNominationId(nominationId, Keyset.cursor(afterId), Keyset.page(size));
     }
 
     @Override
@@ -51,6 +66,7 @@ public class DisadvantageService implements CrudService<Disadvantage> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean update(Integer id, Disadvantage updated) throws ApiRequestException {
         Disadvantage disadvantage = disadvantageRepository.findById(id).orElse(null);
 
@@ -82,6 +98,7 @@ public class DisadvantageService implements CrudService<Disadvantage> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean delete(Integer id) {
         if (disadvantageRepository.existsById(id)) {
             disadvantageRepository.deleteById(id);
@@ -0,0 +1,32 @@
+package championoftaste.api.service;
+
+import championoftaste.config.CachingConfig;
+
+import org.springframework.cache.annotation.CacheEvict;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает метод, изменяющий справочники конкурса (в том числе продукты, входящие в снимок справочника):
+ * после его успешного выполнения очищаются все кеши справочников.
+ * Очищаются сразу все кеши, так как ответы API содержат данные связанных сущностей (например, номинация -
+ * данные своей группы), а сами изменения справочников редки.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@CacheEvict(
+        cacheNames = {
+                CachingConfig.NOMINATION_GROUPS,
+                CachingConfig.NOMINATIONS,
+                CachingConfig.PARAMETERS,
+                CachingConfig.DISADVANTAGES,
+                CachingConfig.PRODUCERS,
+                CachingConfig.CATALOG
+        },
+        allEntries = true
+)
+@interface EvictsCatalog {
+}
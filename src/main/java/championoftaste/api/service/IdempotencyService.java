@@ -0,0 +1,136 @@
+package championoftaste.api.service;
+
+import championoftaste.exception.ApiRequestException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Сервис, обеспечивающий идемпотентность повторяемых клиентами запросов: ответ на запрос с хедером
+ * Idempotency-Key запоминается, и повтор запроса с тем же ключом получает сохранённый ответ без повторного
+ * выполнения (и без обращений к базе данных). Повтор ключа с другим телом запроса отклоняется (422).
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";              // хедер с ключом идемпотентности
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed"; // хедер повторно отданного ответа
+
+    private static final int MAX_SIZE = 100_000;    // максимальное количество хранимых ответов
+    private static final long TTL_HOURS = 24;       // время хранения ответа (в часах)
+    private static final int MAX_KEY_LENGTH = 255;  // максимальная длина ключа
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    // Ответы по ключам (область запроса, id пользователя, ключ идемпотентности).
+    private final Cache<List<Object>, StoredResponse> responses = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(TTL_HOURS, TimeUnit.HOURS)
+            .build();
+
+    /**
+     * Выполняет запрос не больше одного раза для каждого ключа идемпотентности. Одновременные повторы ждут
+     * завершения первого запроса и получают его ответ. Если запрос завершился исключением, ответ не сохраняется,
+     * и повтор выполнит его заново.
+     *
+     * @param scope  область запроса (например, путь эндпоинта), чтобы один ключ не связывал разные запросы
+     * @param key     ключ идемпотентности (null - запрос выполняется без сохранения ответа)
+     * @param request тело запроса (его хэш сохраняется вместе с ответом и сверяется при повторах)
+     * @param action  запрос
+     * @return ответ на запрос (сохранённый ответ, если запрос с этим ключом уже выполнялся)
+     * @throws ApiRequestException выбрасывается в случае, если ключ некорректен
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action)
+            throws ApiRequestException {
+        if (key == null) {
+            return action.get();
+        }
+
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new ApiRequestException("Некорректный ключ идемпотентности");
+        }
+
+        Integer userId;
+        try {
+            userId = userService.loadAuthorizedIdentity().getId();
+        } catch (UsernameNotFoundException e) {
+            throw new ApiRequestException(e.getMessage());
+        }
+
+        HashCode requestHash = hash(request);
+        AtomicBoolean executed = new AtomicBoolean(false);
+        StoredResponse stored;
+
+        try {
+            stored = responses.get(Arrays.asList(scope, userId, key), () -> {
+                executed.set(true);
+                return new StoredResponse(requestHash, action.get());
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        }
+
+        if (executed.get()) {
+            return stored.getResponse();
+        }
+
+        // Клиент использовал ключ повторно для другого запроса: сохранённый ответ к нему не относится.
+        if (!stored.getRequestHash().equals(requestHash)) {
+            return new ResponseEntity<>(
+                    "Ключ идемпотентности уже использован для другого запроса",
+                    HttpStatus.UNPROCESSABLE_ENTITY
+            );
+        }
+
+        ResponseEntity<?> response = stored.getResponse();
+
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private HashCode hash(Object request) {
+        try {
+            return Hashing.sha256().hashBytes(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать запрос", e);
+        }
+    }
+
+    /**
+     * Сохранённый ответ вместе с хэшем тела запроса, на который он был получен.
+     */
+    @Getter             // создаёт дефолтные геттеры автоматически для каждого поля
+    @AllArgsConstructor // создает конструктор с 1 параметром для каждого поля класса
+    private static class StoredResponse {
+
+        private final HashCode requestHash;     // SHA-256 тела запроса (в виде JSON)
+        private final ResponseEntity<?> response;
+    }
+}
@@ -0,0 +1,241 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.Score;
+import championoftaste.api.repository.ProductRepository;
+import championoftaste.api.response.ProductResult;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис, рассылающий подписанным панелям (Server-Sent Events) изменения таблиц результатов номинаций.
+ * Изменения оценок накапливаются и рассылаются не чаще одного раза за период
+ * application.leaderboard.pushIntervalMillis одним сообщением на номинацию, поэтому поток оценок
+ * не превращается в поток сообщений.
+ * События отправляются панелям отдельным ограниченным пулом потоков, а не потоком планировщика задач: запись
+ * в соединение блокирующая, и панель, которая перестала читать события, не должна задерживать остальные панели
+ * и задачи. Панель, не успевшая получить события до следующей рассылки, отписывается (и переподключается).
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class LeaderboardService {
+
+    public static final String RESULTS_EVENT = "results";   // событие с полной таблицей результатов
+    public static final String DELTA_EVENT = "delta";       // событие с изменившимися строками таблицы результатов
+    public static final String REMOVED_EVENT = "removed";   // событие с id продуктов, удалённых из таблицы результатов
+
+    private static final long TIMEOUT_MILLIS = 60 * 60 * 1000;  // время жизни подписки (клиент переподключается)
+    private static final int SENDER_THREADS = 4;                // количество потоков отправки событий
+    private static final int SENDER_QUEUE_SIZE = 10_000;        // максимальное количество ожидающих отправок
+
+    private final ScoreStatisticsService scoreStatisticsService;
+    private final ProductRepository productRepository;
+
+    // Подписки по id номинаций.
+    private final Map<Integer, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    // Последние разосланные результаты номинаций с подписками (по id номинаций и id продуктов).
+    private final Map<Integer, Map<Integer, ProductResult>> sent = new ConcurrentHashMap<>();
+
+    // id продуктов, оценки которых изменились после последней рассылки.
+    private final Set<Integer> changedProductIds = ConcurrentHashMap.newKeySet();
+
+    // Потоки отправки событий панелям (очередь ограничена: при переполнении панели отписываются).
+    private final ThreadPoolExecutor senders = new ThreadPoolExecutor(
+            SENDER_THREADS,
+            SENDER_THREADS,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(SENDER_QUEUE_SIZE),
+            new ThreadFactoryBuilder().setNameFormat("leaderboard-sender-%d").setDaemon(true).build()
+    );
+
+    // Подписки, отправка событий которым ещё не завершилась.
+    private final Set<SseEmitter> sending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Подписывает панель на изменения результатов номинации. Сразу после подписки отправляется полная таблица
+     * результатов (событие RESULTS_EVENT), затем - только изменившиеся строки (событие DELTA_EVENT).
+     *
+     * @param nominationId id номинации
+     * @return подписка
+     * @throws IOException выбрасывается в случае, если не удалось отправить таблицу результатов
+     */
+    public SseEmitter subscribe(Integer nominationId) throws IOException {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+        List<ProductResult> results = scoreStatisticsService.readResults(nominationId);
+
+        sent.putIfAbsent(nominationId, toMap(results));
+        subscribers.computeIfAbsent(nominationId, id -> new CopyOnWriteArraySet<>()).add(emitter);
+
+        emitter.onCompletion(() -> unsubscribe(nominationId, emitter));
+        emitter.onTimeout(() -> unsubscribe(nominationId, emitter));
+        emitter.onError(e -> unsubscribe(nominationId, emitter));
+        emitter.send(SseEmitter.event().name(RESULTS_EVENT).data(results));
+
+        return emitter;
+    }
+
+    /**
+     * Отмечает продукты, оценки которых изменились. Если вызывается в транзакции, продукты отмечаются после её
+     * фиксации, поэтому рассылаются только сохранённые изменения.
+     *
+     * @param scores добавленные, изменённые или удалённые оценки
+     */
+    public void markChanged(Collection<Score> scores) {
+        markProductsChanged(scores.stream().map(score -> score.getProduct().getId()).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Отмечает продукты, строки которых в таблицах результатов изменились (например, удалённые продукты).
+     * Если вызывается в транзакции, продукты отмечаются после её фиксации.
+     *
+     * @param productIds id продуктов
+     */
+    public void markProductsChanged(Collection<Integer> productIds) {
+        Set<Integer> ids = new HashSet<>(productIds);
+
+        AfterCommit.run(() -> changedProductIds.addAll(ids));
+    }
+
+    /**
+     * Рассылает изменившиеся строки таблиц результатов номинаций, в которых с прошлой рассылки изменились оценки
+     * (один запрос для определения номинаций и по одному запросу на каждую номинацию с подписками).
+     * Продукты, пропавшие из таблицы (удалённые), рассылаются отдельным событием со списком их id.
+     */
+    @Scheduled(fixedRateString = "${application.leaderboard.pushIntervalMillis:500}")
+    public void push() {
+        if (changedProductIds.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> productIds = new HashSet<>(changedProductIds);
+        changedProductIds.removeAll(productIds);
+
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> nominationIds = new HashSet<>(productRepository.findNominationIdsByIdIn(productIds));
+
+        // Удалённые продукты уже не найти в базе данных, но их номинации известны по разосланным результатам.
+        for (Map.Entry<Integer, Map<Integer, ProductResult>> entry : sent.entrySet()) {
+            if (!Collections.disjoint(entry.getValue().keySet(), productIds)) {
+                nominationIds.add(entry.getKey());
+            }
+        }
+
+        for (Integer nominationId : nominationIds) {
+            Set<SseEmitter> emitters = subscribers.get(nominationId);
+
+            if (emitters == null || emitters.isEmpty()) {
+                continue;
+            }
+
+            Map<Integer, ProductResult> previous = sent.getOrDefault(nominationId, Collections.emptyMap());
+            List<ProductResult> results = scoreStatisticsService.readResults(nominationId);
+
+            // Строки передаются целиком (с абсолютными значениями), поэтому повторная доставка строки безопасна.
+            List<ProductResult> delta = results.stream()
+                    .filter(result -> !result.equals(previous.get(result.getProductId())))
+                    .collect(Collectors.toList());
+
+            Map<Integer, ProductResult> current = toMap(results);
+            List<Integer> removed = previous.keySet().stream()
+                    .filter(productId -> !current.containsKey(productId))
+                    .collect(Collectors.toList());
+
+            sent.put(nominationId, current);
+
+            if (delta.isEmpty() && removed.isEmpty()) {
+                continue;
+            }
+
+            for (SseEmitter emitter : emitters) {
+                send(nominationId, emitter, delta, removed);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Передаёт отправку событий подписке пулу потоков отправки. Каждая рассылка строится относительно предыдущей,
+     * поэтому подписка, которая ещё не получила предыдущие события (или не поместилась в очередь отправок),
+     * отписывается: при переподключении панель получит полную таблицу результатов.
+     */
+    private void send(Integer nominationId, SseEmitter emitter, List<ProductResult> delta, List<Integer> removed) {
+        if (!sending.add(emitter)) {
+            // Отправка заблокирована на записи в соединение (и держит монитор подписки), поэтому подписка
+            // только исключается из рассылки, без закрытия.
+            unsubscribe(nominationId, emitter);
+            return;
+        }
+
+        try {
+            senders.execute(() -> {
+                try {
+                    if (!delta.isEmpty()) {
+                        emitter.send(SseEmitter.event().name(DELTA_EVENT).data(delta));
+                    }
+
+                    if (!removed.isEmpty()) {
+                        emitter.send(SseEmitter.event().name(REMOVED_EVENT).data(removed));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(nominationId, emitter);
+                } finally {
+                    sending.remove(emitter);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            sending.remove(emitter);
+            unsubscribe(nominationId, emitter);
+            emitter.complete();
+        }
+    }
+
+    private void unsubscribe(Integer nominationId, SseEmitter emitter) {
+        subscribers.computeIfPresent(nominationId, (id, emitters) -> {
+            emitters.remove(emitter);
+
+            if (emitters.isEmpty()) {
+                // Без подписок результаты номинации не отслеживаются, следующая подписка получит их заново.
+                sent.remove(nominationId);
+                return null;
+            }
+
+            return emitters;
+        });
+    }
+
+    private Map<Integer, ProductResult> toMap(List<ProductResult> results) {
+        Map<Integer, ProductResult> map = new HashMap<>();
+
+        for (ProductResult result : results) {
+            map.put(result.getProductId(), result);
+        }
+
+        return map;
+    }
+}
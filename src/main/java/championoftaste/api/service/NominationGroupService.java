@@ -1,17 +1,27 @@
 package championoftaste.api.service;
 
+import championoftaste.api.Keyset;
+import championoftaste.api.model.Nomination;
 import championoftaste.api.model.NominationGroup;
 import championoftaste.api.repository.NominationGroupRepository;
+import championoftaste.api.repository.NominationRepository;
+import championoftaste.api.response.NominationGroupResponse;
+import championoftaste.api.response.NominationGroupTreeResponse;
+import championoftaste.api.response.NominationTreeResponse;
+import championoftaste.config.CachingConfig;
 import championoftaste.exception.ApiRequestException;
 import championoftaste.validators.FieldsValidator;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolation;
 
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Сервис, реализующий CRUD (Create, Read, Update, Delete) операции над группами номинаций.
@@ -21,9 +31,11 @@ import java.util.List;
 public class NominationGroupService implements CrudService<NominationGroup> {
 
     private final NominationGroupRepository nominationGroupRepository;
+    private final NominationRepository nominationRepository;
     private final FieldsValidator<NominationGroup> fieldsValidator = new FieldsValidator<>();
 
     @Override
+    @EvictsCatalog
     public void create(NominationGroup nominationGroup) throws ApiRequestException {
         // Проверяем все поля создаваемой группы номинаций на корректность.
         for (ConstraintViolation<NominationGroup> violation : fieldsValidator.validate(nominationGroup)) {
@@ -39,8 +51,45 @@ public class NominationGroupService implements CrudService<NominationGroup> {
     }
 
     @Override
-    public List<NominationGroup> readAll() {
-        return nominationGroupRepository.findAll();
+    public List<NominationGroup> readAll(Integer afterId, int size) {
+        return nominationGroupRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    @Cacheable(CachingConfig.NOMINATION_GROUPS)
+    public List<NominationGroupResponse> readAllResponses(Integer afterId, int size) {
+        return nominationGroupRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    /**
+     * Возвращает страницу групп номинаций вместе с номинациями, продуктами и производителями продуктов
+     * (два запроса к базе данных независимо от размера деревьев).
+     *
+     * @param afterId id, после которого начинается страница (null - с начала списка)
+     * @param size    размер страницы
+     * @return деревья групп номинаций
+     */
+    @Transactional(readOnly = true)
+    public List<NominationGroupTreeResponse> readTrees(Integer afterId, int size) {
+        return toTrees(nominationGroupRepository.findAllByIdGreaterThanOrderByIdAsc(
+                Keyset.cursor(afterId),
+                Keyset.page(size)
+        ));
+    }
+
+    /**
+     * Возвращает группу номинаций вместе с номинациями, продуктами и производителями продуктов
+     * (два запроса к базе данных).
+     *
+     * @param id id группы номинаций
+     * @return дерево группы номинаций или null, если группа не найдена
+     */
+    @Transactional(readOnly = true)
+    public NominationGroupTreeResponse readTree(Integer id) {
+        NominationGroup nominationGroup = nominationGroupRepository.findById(id).orElse(null);
+
+        return nominationGroup != null
+                ? toTrees(Collections.singletonList(nominationGroup)).get(0)
+                : null;
     }
 
     @Override
@@ -49,6 +98,7 @@ public class NominationGroupService implements CrudService<NominationGroup> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean update(Integer id, NominationGroup updated) throws ApiRequestException {
         NominationGroup nominationGroup = nominationGroupRepository.findById(id).orElse(null);
 
@@ -79,6 +129,7 @@ public class NominationGroupService implements CrudService<NominationGroup> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean delete(Integer id) {
         if (nominationGroupRepository.existsById(id)) {
             nominationGroupRepository.deleteById(id);
@@ -87,4 +138,28 @@ public class NominationGroupService implements CrudService<NominationGroup> {
 
         return false;
     }
+
+    private List<NominationGroupTreeResponse> toTrees(List<NominationGroup> nominationGroups) {
+        if (nominationGroups.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Integer> groupIds = nominationGroups.stream().map(NominationGroup::getId).collect(Collectors.toSet());
+        Map<Integer, List<NominationTreeResponse>> nominationsByGroupId = new HashMap<>();
+
+        // Номинации всех групп загружаются одним запросом вместе с продуктами и производителями.
+        for (Nomination nomination : nominationRepository.findAllWithProductsByNominationGroupIdIn(groupIds)) {
+            nominationsByGroupId
+                    .computeIfAbsent(nomination.getNominationGroup().getId(), groupId -> new ArrayList<>())
+                    .add(new NominationTreeResponse(nomination));
+        }
+
+        return nominationGroups
+                .stream()
+                .map(nominationGroup -> new NominationGroupTreeResponse(
+                        nominationGroup,
+                        nominationsByGroupId.getOrDefault(nominationGroup.getId(), new ArrayList<>())
+                ))
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,256 @@
+package championoftaste.api.service;
+
+import championoftaste.exception.ApiRequestException;
+import championoftaste.api.Keyset;
+import championoftaste.api.model.Nomination;
+import championoftaste.api.model.NominationGroup;
+import championoftaste.api.model.NominationResults;
+import championoftaste.api.repository.NominationRepository;
+import championoftaste.api.repository.NominationResultsRepository;
+import championoftaste.api.response.ProductResult;
+import championoftaste.api.statistics.RankingTree;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис, замораживающий результаты номинаций при их завершении (см. NominationResults). Пока номинация
+ * или её группа завершена, все таблицы результатов номинации отдаются из снимка, а не считаются по оценкам.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class NominationResultsService {
+
+    private final NominationResultsRepository nominationResultsRepository;
+    private final NominationRepository nominationRepository;
+    private final NominationService nominationService;
+    private final NominationGroupService nominationGroupService;
+    private final ScoreStatisticsService scoreStatisticsService;
+    private final CompositeScoringService compositeScoringService;
+    private final ParameterScoreService parameterScoreService;
+    private final NominationVoterService nominationVoterService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Возвращает замороженные результаты номинации.
+     *
+     * @param nominationId id номинации
+     * @return результаты или null, если номинация не завершена
+     */
+    public NominationResults read(Integer nominationId) {
+        return nominationResultsRepository.findById(nominationId).orElse(null);
+    }
+
+    /**
+     * Возвращает строки замороженного рейтинга начиная с указанной позиции.
+     *
+     * @param results замороженные результаты номинации
+     * @param from    позиция первой строки (с нуля)
+     * @param size    максимальное количество строк (не больше Keyset.MAX_SIZE)
+     * @return строки рейтинга по порядку (JSON)
+     */
+    public JsonNode readRanking(NominationResults results, int from, int size) {
+        ArrayNode ranking = (ArrayNode) readTree(results.getRanking());
+        ArrayNode range = objectMapper.createArrayNode();
+
+        for (int i = Math.max(0, from); i < ranking.size() && range.size() < Math.min(size, Keyset.MAX_SIZE); i++) {
+            range.add(ranking.get(i));
+        }
+
+        return range;
+    }
+
+    /**
+     * Возвращает строку замороженного рейтинга продукта.
+     *
+     * @param results   замороженные результаты номинации
+     * @param productId id продукта
+     * @return строка рейтинга (JSON) или null, если продукта нет в рейтинге
+     */
+    public JsonNode readRanking(NominationResults results, Integer productId) {
+        for (JsonNode entry : readTree(results.getRanking())) {
+            if (entry.path("productId").asInt() == productId) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Завершает номинацию и замораживает её результаты в одной транзакции: если заморозить результаты
+     * не удалось, номинация остаётся незавершённой.
+     *
+     * @param nominationId id номинации
+     * @param nomination   номинация с установленным флагом завершения
+     * @return true, если номинация найдена
+     * @throws ApiRequestException если номинация не прошла проверку
+     */
+    @Transactional
+    @EvictsCatalog  // флаг завершения входит в ответы справочников, кеши очищаются после фиксации транзакции
+    public boolean finish(Integer nominationId, Nomination nomination) throws ApiRequestException {
+        if (!nominationService.update(nominationId, nomination)) {
+            return false;
+        }
+
+        freeze(nominationId);
+        return true;
+    }
+
+    /**
+     * Снова запускает номинацию и удаляет её замороженные результаты в одной транзакции.
+     *
+     * @param nominationId id номинации
+     * @param nomination   номинация со снятым флагом завершения
+     * @return true, если номинация найдена
+     * @throws ApiRequestException если номинация не прошла проверку
+     */
+    @Transactional
+    @EvictsCatalog
+    public boolean start(Integer nominationId, Nomination nomination) throws ApiRequestException {
+        if (!nominationService.update(nominationId, nomination)) {
+            return false;
+        }
+
+        discard(nominationId);
+        return true;
+    }
+
+    /**
+     * Завершает группу номинаций и замораживает результаты её номинаций в одной транзакции.
+     *
+     * @param groupId         id группы номинаций
+     * @param nominationGroup группа номинаций с установленным флагом завершения
+     * @return true, если группа номинаций найдена
+     * @throws ApiRequestException если группа номинаций не прошла проверку
+     */
+    @Transactional
+    @EvictsCatalog
+    public boolean finishGroup(Integer groupId, NominationGroup nominationGroup) throws ApiRequestException {
+        if (!nominationGroupService.update(groupId, nominationGroup)) {
+            return false;
+        }
+
+        freezeGroup(groupId);
+        return true;
+    }
+
+    /**
+     * Снова запускает группу номинаций и удаляет замороженные результаты её номинаций в одной транзакции.
+     *
+     * @param groupId         id группы номинаций
+     * @param nominationGroup группа номинаций со снятым флагом завершения
+     * @return true, если группа номинаций найдена
+     * @throws ApiRequestException если группа номинаций не прошла проверку
+     */
+    @Transactional
+    @EvictsCatalog
+    public boolean startGroup(Integer groupId, NominationGroup nominationGroup) throws ApiRequestException {
+        if (!nominationGroupService.update(groupId, nominationGroup)) {
+            return false;
+        }
+
+        discardGroup(groupId);
+        return true;
+    }
+
+    /**
+     * Считает и сохраняет результаты номинации (заменяя прежние). Рейтинг строится по той же таблице результатов,
+     * поэтому места в таблице и в рейтинге совпадают.
+     *
+     * @param nominationId id завершённой номинации
+     */
+    @Transactional
+    public void freeze(Integer nominationId) {
+        List<ProductResult> results = scoreStatisticsService.readResults(nominationId);
+        List<RankingTree.Entry> ranking = new ArrayList<>(results.size());
+
+        for (int i = 0; i < results.size(); i++) {
+            ProductResult result = results.get(i);
+            ranking.add(new RankingTree.Entry(
+                    result.getProductId(),
+                    i,
+                    result.getRank(),
+                    result.getVotesCount(),
+                    result.getAverage()
+            ));
+        }
+
+        NominationResults frozen = new NominationResults();
+        frozen.setNominationId(nominationId);
+        frozen.setFinishedAt(Instant.now());
+        frozen.setVotersCount(nominationVoterService.count(nominationId));
+        frozen.setResults(writeJson(results));
+        frozen.setRanking(writeJson(ranking));
+        frozen.setCompositeResults(writeJson(compositeScoringService.readResults(nominationId)));
+        frozen.setParameterMatrix(writeJson(parameterScoreService.readMatrix(nominationId)));
+
+        nominationResultsRepository.save(frozen);
+    }
+
+    /**
+     * Замораживает результаты номинаций группы, кроме номинаций, результаты которых уже заморожены
+     * (например, завершённых раньше группы): их снимок остаётся прежним.
+     *
+     * @param groupId id завершённой группы номинаций
+     */
+    @Transactional
+    public void freezeGroup(Integer groupId) {
+        for (Integer nominationId : nominationRepository.findIdsByNominationGroupId(groupId)) {
+            if (!nominationResultsRepository.existsById(nominationId)) {
+                freeze(nominationId);
+            }
+        }
+    }
+
+    /**
+     * Удаляет замороженные результаты номинации (после повторного запуска результаты снова считаются по оценкам).
+     *
+     * @param nominationId id запущенной номинации
+     */
+    @Transactional
+    public void discard(Integer nominationId) {
+        if (nominationResultsRepository.existsById(nominationId)) {
+            nominationResultsRepository.deleteById(nominationId);
+        }
+    }
+
+    /**
+     * Удаляет замороженные результаты номинаций группы, кроме номинаций, которые завершены сами по себе.
+     *
+     * @param groupId id запущенной группы номинаций
+     */
+    @Transactional
+    public void discardGroup(Integer groupId) {
+        for (Integer nominationId : nominationRepository.findUnfinishedIdsByNominationGroupId(groupId)) {
+            discard(nominationId);
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать результаты номинации", e);
+        }
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать результаты номинации", e);
+        }
+    }
+}
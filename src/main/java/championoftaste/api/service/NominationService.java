@@ -1,12 +1,16 @@
 package championoftaste.api.service;
 
 import championoftaste.exception.ApiRequestException;
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Nomination;
 import championoftaste.api.repository.NominationRepository;
+import championoftaste.api.response.NominationResponse;
+import championoftaste.config.CachingConfig;
 import championoftaste.validators.FieldsValidator;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import javax.validation.ConstraintViolation;
@@ -24,6 +28,7 @@ public class NominationService implements CrudService<Nomination> {
     private final FieldsValidator<Nomination> fieldsValidator = new FieldsValidator<>();
 
     @Override
+    @EvictsCatalog
     public void create(Nomination nomination) throws ApiRequestException {
         // Проверяем все поля создаваемой номинации на корректность.
         for (ConstraintViolation<Nomination> violation : fieldsValidator.validate(nomination)) {
@@ -39,8 +44,18 @@ public class NominationService implements CrudService<Nomination> {
     }
 
     @Override
-    public List<Nomination> readAll() {
-        return nominationRepository.findAll();
+    public List<Nomination> readAll(Integer afterId, int size) {
+        return nominationRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    @Cacheable(CachingConfig.NOMINATIONS)
+    public List<NominationResponse> readAllResponses(Integer afterId, int size) {
+        return nominationRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    @Cacheable(CachingConfig.NOMINATIONS)
+    public List<NominationResponse> readResponsesByGroup(Integer groupId, Integer afterId, int size) {
+        return nominationRepository.findResponsesByNominationGroupId(groupId, Keyset.cursor(afterId), Keyset.page(size));
     }
 
     @Override
@@ -49,6 +64,7 @@ public class NominationService implements CrudService<Nomination> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean update(Integer id, Nomination updated) throws ApiRequestException {
         Nomination nomination = nominationRepository.findById(id).orElse(null);
 
@@ -83,6 +99,7 @@ public class NominationService implements CrudService<Nomination> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean delete(Integer id) {
         if (nominationRepository.existsById(id)) {
             nominationRepository.deleteById(id);
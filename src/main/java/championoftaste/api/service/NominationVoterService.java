@@ -0,0 +1,111 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.NominationVoter;
+import championoftaste.api.model.Score;
+import championoftaste.api.repository.NominationVoterRepository;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Сервис, поддерживающий список проголосовавших в каждой номинации пользователей в актуальном состоянии.
+ * Методы изменения списка должны вызываться в той же транзакции, в которой изменяются оценки.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class NominationVoterService {
+
+    private final NominationVoterRepository nominationVoterRepository;
+    private final VoterSketchService voterSketchService;
+
+    /**
+     * Проверяет, выставлял ли пользователь оценки продуктам номинации.
+     *
+     * @param nominationId id номинации
+     * @param userId       id пользователя
+     * @return true - пользователь уже голосовал в номинации, иначе false
+     */
+    public boolean hasVoted(Integer nominationId, Integer userId) {
+        return nominationVoterRepository.existsById(new NominationVoter.Key(nominationId, userId));
+    }
+
+    /**
+     * Возвращает количество пользователей, проголосовавших в номинации.
+     *
+     * @param nominationId id номинации
+     * @return количество проголосовавших пользователей
+     */
+    public long count(Integer nominationId) {
+        return nominationVoterRepository.countByNominationId(nominationId);
+    }
+
+    /**
+     * Возвращает количество различных пользователей, проголосовавших в номинациях группы.
+     *
+     * @param groupId id группы номинаций
+     * @return количество проголосовавших пользователей
+     */
+    public long countByGroup(Integer groupId) {
+        return nominationVoterRepository.countDistinctUserIdByNominationGroupId(groupId);
+    }
+
+    /**
+     * Учитывает новые оценки в списках проголосовавших (один запрос на каждого пользователя).
+     *
+     * @param scores добавленные оценки
+     */
+    @Transactional
+    public void add(Collection<Score> scores) {
+        for (Map.Entry<Integer, List<Integer>> entry : getProductIdsByUserId(scores).entrySet()) {
+            nominationVoterRepository.increment(entry.getKey(), entry.getValue());
+        }
+
+        voterSketchService.add(scores);
+    }
+
+    /**
+     * Исключает удаляемые оценки из списков проголосовавших. Должен вызываться до удаления продуктов, к которым
+     * относятся оценки.
+     *
+     * @param scores удаляемые оценки
+     */
+    @Transactional
+    public void remove(Collection<Score> scores) {
+        for (Map.Entry<Integer, List<Integer>> entry : getProductIdsByUserId(scores).entrySet()) {
+            nominationVoterRepository.decrement(entry.getKey(), entry.getValue());
+            nominationVoterRepository.deleteEmptyByUserId(entry.getKey());
+        }
+    }
+
+    /**
+     * Заполняет списки проголосовавших по уже имеющимся оценкам, если они ещё ни разу не заполнялись.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)  // до построения приближённых счётчиков
+    public void initialize() {
+        if (nominationVoterRepository.count() == 0) {
+            nominationVoterRepository.calculateAll();
+        }
+    }
+
+    private Map<Integer, List<Integer>> getProductIdsByUserId(Collection<Score> scores) {
+        Map<Integer, List<Integer>> productIdsByUserId = new HashMap<>();
+
+        for (Score score : scores) {
+            productIdsByUserId
+                    .computeIfAbsent(score.getUser().getId(), userId -> new ArrayList<>())
+                    .add(score.getProduct().getId());
+        }
+
+        return productIdsByUserId;
+    }
+}
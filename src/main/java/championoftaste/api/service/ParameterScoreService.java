@@ -1,25 +1,32 @@
 package championoftaste.api.service;
 
+import championoftaste.api.Keyset;
 import championoftaste.api.UserRole;
 import championoftaste.api.model.ParameterScore;
 import championoftaste.api.model.Score;
 import championoftaste.api.request.ParameterScoreRequest;
 import championoftaste.api.model.User;
+import championoftaste.api.repository.ParameterRepository;
 import championoftaste.api.repository.ParameterScoreRepository;
-import championoftaste.api.AuthorizedUser;
+import championoftaste.api.repository.ProductRepository;
 import championoftaste.api.request.ScoreRequest;
+import championoftaste.api.response.BulkItemResponse;
+import championoftaste.api.response.ParameterScoreResponse;
+import championoftaste.api.statistics.ParameterScoreMatrix;
 import championoftaste.exception.ApiRequestException;
+import championoftaste.exception.DataIntegrityViolations;
 import championoftaste.validators.FieldsValidator;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolation;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Сервис, реализующий CRUD (Create, Read, Update, Delete) операции над оценками критериев продуктов.
@@ -31,11 +38,14 @@ public class ParameterScoreService implements CrudService<ParameterScore> {
     private final ParameterScoreRepository parameterScoreRepository;
     private final FieldsValidator<ParameterScore> fieldsValidator = new FieldsValidator<>();
     private final UserService userService;
+    private final ProductRepository productRepository;
+    private final ParameterRepository parameterRepository;
+    private final CompositeScoringService compositeScoringService;
 
     private ParameterScore createParameterScoreFromParameterScoreRequest(ParameterScoreRequest parameterScoreRequest) {
         User user;
         try {
-            user = userService.loadUserByUsername(AuthorizedUser.getUsername());
+            user = userService.loadAuthorizedReference();
         } catch (UsernameNotFoundException e) {
             throw new ApiRequestException(e.getMessage());
         }
@@ -48,6 +58,13 @@ public class ParameterScoreService implements CrudService<ParameterScore> {
         );
     }
 
+    private RuntimeException toApiRequestException(DataIntegrityViolationException e) {
+        return DataIntegrityViolations.isViolated(e, ParameterScore.PRODUCT_PARAMETER_USER_CONSTRAINT)
+                ? new ApiRequestException("Вы уже выставили оценку данному критерию данного продукта")
+                : e;
+    }
+
+    @Transactional
     public void create(List<ParameterScoreRequest> parameterScoreRequests) throws ApiRequestException {
         List<ParameterScore> parameterScores = new ArrayList<>();
 
@@ -61,7 +78,7 @@ public class ParameterScoreService implements CrudService<ParameterScore> {
     public void create(ParameterScoreRequest parameterScoreRequest) throws ApiRequestException {
         User user;
         try {
-            user = userService.loadUserByUsername(AuthorizedUser.getUsername());
+            user = userService.loadAuthorizedReference();
         } catch (UsernameNotFoundException e) {
             throw new ApiRequestException(e.getMessage());
         }
@@ -85,7 +102,7 @@ public class ParameterScoreService implements CrudService<ParameterScore> {
 
         User user;
         try {
-            user = userService.loadUserByUsername(AuthorizedUser.getUsername());
+            user = userService.loadAuthorizedReference();
         } catch (UsernameNotFoundException e) {
             throw new ApiRequestException(e.getMessage());
         }
@@ -100,26 +117,163 @@ public class ParameterScoreService implements CrudService<ParameterScore> {
         return update(id, updated);
     }
 
+    /**
+     * Сохраняет корректные оценки критериев авторизованного эксперта и возвращает итог по каждой оценке:
+     * некорректные оценки и повторы не мешают сохранению остальных. Вызывается для частей отправки (см. Bulk).
+     *
+     * @param parameterScoreRequests оценки (часть отправки)
+     * @param offset                 номер первой оценки части в отправке
+     * @return итоги обработки оценок
+     */
+    @Transactional
+    public List<BulkItemResponse> createEach(List<ParameterScoreRequest> parameterScoreRequests, int offset)
+            throws ApiRequestException {
+        BulkItemResponse[] results = new BulkItemResponse[parameterScoreRequests.size()];
+        // Оценки, прошедшие проверку полей, по парам (id продукта, id критерия).
+        Map<List<Integer>, Integer> indexByKey = new LinkedHashMap<>();
+        List<ParameterScore> parameterScores = new ArrayList<>();
+
+        for (int i = 0; i < parameterScoreRequests.size(); i++) {
+            ParameterScore parameterScore =
+                    createParameterScoreFromParameterScoreRequest(parameterScoreRequests.get(i));
+            parameterScores.add(parameterScore);
+
+            for (ConstraintViolation<ParameterScore> violation : fieldsValidator.validate(parameterScore)) {
+                results[i] = BulkItemResponse.invalid(offset + i, violation.getMessage());
+                break;
+            }
+
+            if (results[i] == null
+                    && (parameterScore.getProduct().getId() == null || parameterScore.getParameter().getId() == null)) {
+                results[i] = BulkItemResponse.invalid(offset + i, "Не удалось найти продукт или критерий");
+            }
+
+            if (results[i] == null && indexByKey.putIfAbsent(
+                    Arrays.asList(parameterScore.getProduct().getId(), parameterScore.getParameter().getId()),
+                    i
+            ) != null) {
+                results[i] = BulkItemResponse.duplicate(
+                        offset + i,
+                        "Вы уже выставили оценку данному критерию данного продукта"
+                );
+            }
+        }
+
+        Set<Integer> productIds = new HashSet<>();
+        Set<Integer> parameterIds = new HashSet<>();
+
+        for (List<Integer> key : indexByKey.keySet()) {
+            productIds.add(key.get(0));
+            parameterIds.add(key.get(1));
+        }
+
+        if (!indexByKey.isEmpty()) {
+            // Критерии продуктов, которые эксперт уже оценивал (один запрос).
+            for (Object[] existing : parameterScoreRepository
+                    .findProductIdsAndParameterIdsByUserIdAndProductIdInAndParameterIdIn(
+                            parameterScores.get(0).getUser().getId(),
+                            productIds,
+                            parameterIds
+                    )) {
+                Integer i = indexByKey.remove(Arrays.asList((Integer) existing[0], (Integer) existing[1]));
+
+                if (i != null) {
+                    results[i] = BulkItemResponse.duplicate(
+                            offset + i,
+                            "Вы уже выставили оценку данному критерию данного продукта"
+                    );
+                }
+            }
+        }
+
+        if (!indexByKey.isEmpty()) {
+            // Несуществующие продукты и критерии (по одному запросу).
+            Set<Integer> existingProductIds = new HashSet<>(productRepository.findIdsByIdIn(productIds));
+            Set<Integer> existingParameterIds = new HashSet<>(parameterRepository.findIdsByIdIn(parameterIds));
+            Iterator<Map.Entry<List<Integer>, Integer>> iterator = indexByKey.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<List<Integer>, Integer> entry = iterator.next();
+
+                if (!existingProductIds.contains(entry.getKey().get(0))
+                        || !existingParameterIds.contains(entry.getKey().get(1))) {
+                    results[entry.getValue()] = BulkItemResponse.invalid(
+                            offset + entry.getValue(),
+                            "Не удалось найти продукт или критерий"
+                    );
+                    iterator.remove();
+                }
+            }
+        }
+
+        List<ParameterScore> created = new ArrayList<>();
+
+        for (int i : indexByKey.values()) {
+            created.add(parameterScores.get(i));
+        }
+
+        // Одновременная запись тех же оценок другим запросом нарушит ограничение уникальности, и Bulk повторит часть.
+        parameterScoreRepository.saveAll(created);
+        parameterScoreRepository.flush();
+        compositeScoringService.addParameterScores(created);
+
+        for (int i : indexByKey.values()) {
+            results[i] = BulkItemResponse.created(offset + i, parameterScores.get(i).getId());
+        }
+
+        return Arrays.asList(results);
+    }
+
+    @Transactional
     public void createAll(List<ParameterScore> parameterScores) throws ApiRequestException {
+        // Пары (id продукта, id критерия), которым выставляются оценки, по id пользователей, которые их выставляют.
+        Map<Integer, Set<List<Integer>>> keysByUserId = new HashMap<>();
+
         for (ParameterScore parameterScore : parameterScores) {
             // Проверяем все поля создаваемой оценки критерия на корректность.
             for (ConstraintViolation<ParameterScore> violation : fieldsValidator.validate(parameterScore)) {
                 throw new ApiRequestException(violation.getMessage());
             }
 
-            // Если уже данным пользователем была выставлена оценка данному критерию данного продукта.
-            if (parameterScoreRepository
-                    .findByProductAndParameterAndUser(
-                            parameterScore.getProduct(),
-                            parameterScore.getParameter(),
-                            parameterScore.getUser()
-                    )
-                    .isPresent()) {
+            // Если в одном запросе пользователь несколько раз оценивает один и тот же критерий одного продукта.
+            if (!keysByUserId
+                    .computeIfAbsent(parameterScore.getUser().getId(), userId -> new HashSet<>())
+                    .add(Arrays.asList(parameterScore.getProduct().getId(), parameterScore.getParameter().getId()))) {
                 throw new ApiRequestException("Вы уже выставили оценку данному критерию данного продукта");
             }
         }
 
-        parameterScoreRepository.saveAll(parameterScores);
+        // Если пользователь уже оценивал какой-либо из критериев этих продуктов (один запрос на каждого пользователя).
+        for (Map.Entry<Integer, Set<List<Integer>>> entry : keysByUserId.entrySet()) {
+            Set<Integer> productIds = new HashSet<>();
+            Set<Integer> parameterIds = new HashSet<>();
+
+            for (List<Integer> key : entry.getValue()) {
+                productIds.add(key.get(0));
+                parameterIds.add(key.get(1));
+            }
+
+            for (Object[] existing : parameterScoreRepository
+                    .findProductIdsAndParameterIdsByUserIdAndProductIdInAndParameterIdIn(
+                            entry.getKey(),
+                            productIds,
+                            parameterIds
+                    )) {
+                if (entry.getValue().contains(Arrays.asList((Integer) existing[0], (Integer) existing[1]))) {
+                    throw new ApiRequestException("Вы уже выставили оценку данному критерию данного продукта");
+                }
+            }
+        }
+
+        // Уникальность оценок дополнительно гарантируется ограничением в базе данных (на случай одновременных запросов).
+        try {
+            parameterScoreRepository.saveAll(parameterScores);
+            parameterScoreRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw toApiRequestException(e);
+        }
+
+        compositeScoringService.addParameterScores(parameterScores);
     }
 
     @Override
@@ -129,23 +283,46 @@ public class ParameterScoreService implements CrudService<ParameterScore> {
             throw new ApiRequestException(violation.getMessage());
         }
 
-        // Если уже данным пользователем была выставлена оценка данному критерию данного продукта.
-        if (parameterScoreRepository
-                .findByProductAndParameterAndUser(
-                        parameterScore.getProduct(),
-                        parameterScore.getParameter(),
-                        parameterScore.getUser()
-                )
-                .isPresent()) {
-            throw new ApiRequestException("Вы уже выставили оценку данному критерию данного продукта");
+        // Если уже данным пользователем была выставлена оценка данному критерию данного продукта,
+        // то вставка нарушит ограничение уникальности.
+        try {
+            parameterScoreRepository.saveAndFlush(parameterScore);
+        } catch (DataIntegrityViolationException e) {
+            throw toApiRequestException(e);
         }
 
-        parameterScoreRepository.save(parameterScore);
+        compositeScoringService.addParameterScores(Collections.singletonList(parameterScore));
     }
 
     @Override
-    public List<ParameterScore> readAll() {
-        return parameterScoreRepository.findAll();
+    public List<ParameterScore> readAll(Integer afterId, int size) {
+        return parameterScoreRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ParameterScoreResponse> readAllResponses(Integer afterId, int size) {
+        return parameterScoreRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ParameterScoreResponse> readResponsesByProduct(Integer productId, Integer afterId, int size) {
+        return parameterScoreRepository.findResponsesByProductId(productId, Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ParameterScoreResponse> readResponsesByParameter(Integer parameterId, Integer afterId, int size) {
+        return parameterScoreRepository.findResponsesByParameterId(parameterId, Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ParameterScoreResponse> readResponsesByUser(Integer userId, Integer afterId, int size) {
+        return parameterScoreRepository.findResponsesByUserId(userId, Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    /**
+     * Возвращает матрицу оценок критериев номинации (один сгруппированный запрос).
+     *
+     * @param nominationId id номинации
+     * @return матрица оценок критериев (пустая, если в номинации нет продуктов или критериев)
+     */
+    public ParameterScoreMatrix readMatrix(Integer nominationId) {
+        return ParameterScoreMatrix.of(parameterScoreRepository.calculateMatrixByNominationId(nominationId));
     }
 
     @Override
@@ -177,12 +354,22 @@ public class ParameterScoreService implements CrudService<ParameterScore> {
                 throw new ApiRequestException("Такая оценка критерию уже выставлена");
             }
 
+            // Запоминаем прежнее значение оценки, чтобы заменить его в итоговой оценке продукта.
+            ParameterScore previous = new ParameterScore(
+                    parameterScore.getScore(),
+                    parameterScore.getProduct(),
+                    parameterScore.getParameter(),
+                    parameterScore.getUser()
+            );
+
             // Сохраняем обновлённые данные.
             updated.setId(id);
             updated.setProduct(parameterScore.getProduct());
             updated.setParameter(parameterScore.getParameter());
             updated.setUser(parameterScore.getUser());
             parameterScoreRepository.save(updated);
+            compositeScoringService.removeParameterScores(Collections.singletonList(previous));
+            compositeScoringService.addParameterScores(Collections.singletonList(updated));
 
             return true;
         }
@@ -192,8 +379,11 @@ public class ParameterScoreService implements CrudService<ParameterScore> {
 
     @Override
     public boolean delete(Integer id) {
-        if (parameterScoreRepository.existsById(id)) {
-            parameterScoreRepository.deleteById(id);
+        ParameterScore parameterScore = parameterScoreRepository.findById(id).orElse(null);
+
+        if (parameterScore != null) {
+            parameterScoreRepository.delete(parameterScore);
+            compositeScoringService.removeParameterScores(Collections.singletonList(parameterScore));
             return true;
         }
 
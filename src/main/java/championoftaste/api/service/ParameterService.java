@@ -1,12 +1,16 @@
 package championoftaste.api.service;
 
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Parameter;
 import championoftaste.api.repository.ParameterRepository;
+import championoftaste.api.response.ParameterResponse;
+import championoftaste.config.CachingConfig;
 import championoftaste.exception.ApiRequestException;
 import championoftaste.validators.FieldsValidator;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import javax.validation.ConstraintViolation;
@@ -23,8 +27,10 @@ public class ParameterService implements CrudService<Parameter> {
 
     private final ParameterRepository parameterRepository;
     private final FieldsValidator<Parameter> fieldsValidator = new FieldsValidator<>();
+    private final CompositeScoringService compositeScoringService;
 
     @Override
+    @EvictsCatalog
     public void create(Parameter parameter) throws ApiRequestException {
         // Проверяем все поля создаваемого критерия оценивания продукта на корректность.
         for (ConstraintViolation<Parameter> violation : fieldsValidator.validate(parameter)) {
@@ -39,11 +45,22 @@ public class ParameterService implements CrudService<Parameter> {
         }
 
         parameterRepository.save(parameter);
+        compositeScoringService.putParameter(parameter);
     }
 
     @Override
-    public List<Parameter> readAll() {
-        return parameterRepository.findAll();
+    public List<Parameter> readAll(Integer afterId, int size) {
+        return parameterRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    @Cacheable(CachingConfig.PARAMETERS)
+    public List<ParameterResponse> readAllResponses(Integer afterId, int size) {
+        return parameterRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    @Cacheable(CachingConfig.PARAMETERS)
+    public List<ParameterResponse> readResponsesByNomination(Integer nominationId, Integer afterId, int size) {
+        return parameterRepository.findResponsesByNominationId(nominationId, Keyset.cursor(afterId), Keyset.page(size));
     }
 
     @Override
@@ -52,6 +69,7 @@ public class ParameterService implements CrudService<Parameter> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean update(Integer id, Parameter updated) throws ApiRequestException {
         Parameter parameter = parameterRepository.findById(id).orElse(null);
 
@@ -77,6 +95,7 @@ public class ParameterService implements CrudService<Parameter> {
             updated.setNomination(parameter.getNomination());
             updated.setScores(parameter.getScores());
             parameterRepository.save(updated);
+            compositeScoringService.putParameter(updated);
 
             return true;
         }
@@ -85,9 +104,11 @@ public class ParameterService implements CrudService<Parameter> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean delete(Integer id) {
         if (parameterRepository.existsById(id)) {
             parameterRepository.deleteById(id);
+            compositeScoringService.removeParameter(id);
             return true;
         }
 
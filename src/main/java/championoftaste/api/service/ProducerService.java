@@ -1,12 +1,16 @@
 package championoftaste.api.service;
 
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Producer;
 import championoftaste.api.repository.ProducerRepository;
+import championoftaste.api.response.ProducerResponse;
+import championoftaste.config.CachingConfig;
 import championoftaste.exception.ApiRequestException;
 import championoftaste.validators.FieldsValidator;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import javax.validation.ConstraintViolation;
@@ -24,6 +28,7 @@ public class ProducerService implements CrudService<Producer> {
     private final FieldsValidator<Producer> fieldsValidator = new FieldsValidator<>();
 
     @Override
+    @EvictsCatalog
     public void create(Producer producer) throws ApiRequestException {
         // Проверяем все поля создаваемого производителя на корректность.
         for (ConstraintViolation<Producer> violation : fieldsValidator.validate(producer)) {
@@ -39,8 +44,13 @@ public class ProducerService implements CrudService<Producer> {
     }
 
     @Override
-    public List<Producer> readAll() {
-        return producerRepository.findAll();
+    public List<Producer> readAll(Integer afterId, int size) {
+        return producerRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    @Cacheable(CachingConfig.PRODUCERS)
+    public List<ProducerResponse> readAllResponses(Integer afterId, int size) {
+        return producerRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
     }
 
     @Override
@@ -49,6 +59,7 @@ public class ProducerService implements CrudService<Producer> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean update(Integer id, Producer updated) throws ApiRequestException {
         Producer producer = producerRepository.findById(id).orElse(null);
 
@@ -80,6 +91,7 @@ public class ProducerService implements CrudService<Producer> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean delete(Integer id) {
         if (producerRepository.existsById(id)) {
             producerRepository.deleteById(id);
@@ -1,16 +1,20 @@
 package championoftaste.api.service;
 
 import championoftaste.exception.ApiRequestException;
+import championoftaste.api.Keyset;
 import championoftaste.api.model.Product;
 import championoftaste.api.repository.ProductRepository;
+import championoftaste.api.response.ProductResponse;
 import championoftaste.validators.FieldsValidator;
 
 import lombok.AllArgsConstructor;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolation;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -22,8 +26,13 @@ public class ProductService implements CrudService<Product> {
 
     private final ProductRepository productRepository;
     private final FieldsValidator<Product> fieldsValidator = new FieldsValidator<>();
+    private final NominationVoterService nominationVoterService;
+    private final RankingService rankingService;
+    private final CompositeScoringService compositeScoringService;
+    private final LeaderboardService leaderboardService;
 
     @Override
+    @EvictsCatalog
     public void create(Product product) throws ApiRequestException {
         // Проверяем все поля создаваемого продукта на корректность.
         for (ConstraintViolation<Product> violation : fieldsValidator.validate(product)) {
@@ -38,11 +47,24 @@ public class ProductService implements CrudService<Product> {
         }
 
         productRepository.save(product);
+        rankingService.refresh(Collections.singletonList(product.getId()));
     }
 
     @Override
-    public List<Product> readAll() {
-        return productRepository.findAll();
+    public List<Product> readAll(Integer afterId, int size) {
+        return productRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ProductResponse> readAllResponses(Integer afterId, int size) {
+        return productRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ProductResponse> readResponsesByNomination(Integer nominationId, Integer afterId, int size) {
+        return productRepository.findResponsesByNominationId(nominationId, Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ProductResponse> readResponsesByProducer(Integer producerId, Integer afterId, int size) {
+        return productRepository.findResponsesByProducerId(producerId, Keyset.cursor(afterId), Keyset.page(size));
     }
 
     @Override
@@ -51,6 +73,7 @@ public class ProductService implements CrudService<Product> {
     }
 
     @Override
+    @EvictsCatalog
     public boolean update(Integer id, Product updated) throws ApiRequestException {
         Product product = productRepository.findById(id).orElse(null);
 
@@ -87,9 +110,19 @@ public class ProductService implements CrudService<Product> {
     }
 
     @Override
+    @EvictsCatalog
+    @Transactional
     public boolean delete(Integer id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
+        Product product = productRepository.findById(id).orElse(null);
+
+        if (product != null) {
+            // Оценки продукта удаляются вместе с ним, поэтому их надо исключить из списков проголосовавших
+            // (пока продукт ещё существует и известна его номинация).
+            nominationVoterService.remove(product.getScores());
+            productRepository.delete(product);
+            rankingService.refresh(Collections.singletonList(id));
+            compositeScoringService.removeProduct(id);
+            leaderboardService.markProductsChanged(Collections.singletonList(id));
             return true;
         }
 
@@ -0,0 +1,183 @@
+package championoftaste.api.service;
+
+import championoftaste.api.Keyset;
+import championoftaste.api.model.Score;
+import championoftaste.api.repository.ScoreStatisticsRepository;
+import championoftaste.api.statistics.RankingTree;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис, поддерживающий в памяти рейтинги продуктов всех номинаций (см. RankingTree). Изменения оценок
+ * применяются к рейтингам приращениями после фиксации транзакции, поэтому место продукта и первые k строк рейтинга
+ * не требуют запросов к базе данных. При запуске приложения рейтинги строятся по статистике оценок продуктов.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class RankingService {
+
+    private final ScoreStatisticsRepository scoreStatisticsRepository;
+
+    // Рейтинги по id номинаций.
+    private final Map<Integer, RankingTree> rankings = new ConcurrentHashMap<>();
+
+    // id номинаций по id продуктов, входящих в рейтинги.
+    private final Map<Integer, Integer> nominationIds = new ConcurrentHashMap<>();
+
+    // Количество перестроений рейтингов (изменения, начатые до перестроения, могут уже входить в статистику).
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Возвращает строки рейтинга номинации начиная с указанной позиции.
+     *
+     * @param nominationId id номинации
+     * @param from         позиция первой строки (с нуля)
+     * @param size         максимальное количество строк (не больше Keyset.MAX_SIZE)
+     * @return строки рейтинга по порядку (пустой список, если в номинации нет продуктов)
+     */
+    public List<RankingTree.Entry> readRange(Integer nominationId, int from, int size) {
+        RankingTree ranking = rankings.get(nominationId);
+
+        return ranking != null ? ranking.range(from, Math.min(size, Keyset.MAX_SIZE)) : Collections.emptyList();
+    }
+
+    /**
+     * Возвращает строку рейтинга продукта в номинации.
+     *
+     * @param nominationId id номинации
+     * @param productId    id продукта
+     * @return строка рейтинга или null, если продукта нет в рейтинге номинации
+     */
+    public RankingTree.Entry read(Integer nominationId, Integer productId) {
+        RankingTree ranking = rankings.get(nominationId);
+
+        return ranking != null ? ranking.get(productId) : null;
+    }
+
+    /**
+     * Учитывает новые оценки в рейтингах (после фиксации транзакции, если вызывается в транзакции).
+     *
+     * @param scores добавленные оценки
+     */
+    public void add(Collection<Score> scores) {
+        apply(scores, 1);
+    }
+
+    /**
+     * Исключает удалённые оценки из рейтингов (после фиксации транзакции, если вызывается в транзакции).
+     *
+     * @param scores удалённые оценки
+     */
+    public void remove(Collection<Score> scores) {
+        apply(scores, -1);
+    }
+
+    /**
+     * Перечитывает строки рейтингов указанных продуктов из статистики оценок (после фиксации транзакции, если
+     * вызывается в транзакции): новые продукты добавляются в рейтинг своей номинации, удалённые - исключаются.
+     *
+     * @param productIds id продуктов
+     */
+    public void refresh(Collection<Integer> productIds) {
+        Set<Integer> ids = new HashSet<>(productIds);
+
+        AfterCommit.run(() -> reload(ids));
+    }
+
+    /**
+     * Строит рейтинги всех номинаций по статистике оценок (один запрос). Выполняется после заполнения статистики.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)   // после заполнения статистики оценок
+    public synchronized void rebuild() {
+        generation.incrementAndGet();
+        rankings.clear();
+        nominationIds.clear();
+
+        for (Object[] row : scoreStatisticsRepository.findAllRankings()) {
+            put(row);
+        }
+    }
+
+    private void apply(Collection<Score> scores, int sign) {
+        Map<Integer, long[]> deltas = new HashMap<>();  // изменения количества и суммы оценок по id продуктов
+
+        for (Score score : scores) {
+            long[] delta = deltas.computeIfAbsent(score.getProduct().getId(), id -> new long[2]);
+            delta[0] += sign;
+            delta[1] += sign * score.getScore();
+        }
+
+        long started = generation.get();
+
+        AfterCommit.run(() -> applyDeltas(deltas, started));
+    }
+
+    /**
+     * Применяет изменения оценок к рейтингам под той же блокировкой, что и перестроение рейтингов.
+     *
+     * @param deltas  изменения количества и суммы оценок по id продуктов
+     * @param started номер перестроения рейтингов на момент изменения оценок
+     */
+    private synchronized void applyDeltas(Map<Integer, long[]> deltas, long started) {
+        // Рейтинги перестроены после изменения оценок: статистика, по которой они построены, может уже учитывать
+        // эти оценки, поэтому строки продуктов перечитываются, а не изменяются повторно.
+        if (generation.get() != started) {
+            reload(deltas.keySet());
+            return;
+        }
+
+        Set<Integer> unknown = new HashSet<>();
+
+        for (Map.Entry<Integer, long[]> entry : deltas.entrySet()) {
+            Integer nominationId = nominationIds.get(entry.getKey());
+            RankingTree ranking = nominationId != null ? rankings.get(nominationId) : null;
+
+            if (ranking == null) {
+                unknown.add(entry.getKey());
+            } else {
+                ranking.add(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+            }
+        }
+
+        // Продукты, которых ещё нет в рейтингах, читаются из статистики (она уже учитывает эти оценки).
+        if (!unknown.isEmpty()) {
+            reload(unknown);
+        }
+    }
+
+    private synchronized void reload(Set<Integer> productIds) {
+        for (Integer productId : productIds) {
+            Integer nominationId = nominationIds.remove(productId);
+
+            RankingTree ranking = nominationId != null ? rankings.get(nominationId) : null;
+
+            if (ranking != null) {
+                ranking.remove(productId);
+            }
+        }
+
+        for (Object[] row : scoreStatisticsRepository.findRankingsByProductIdIn(productIds)) {
+            put(row);
+        }
+    }
+
+    private void put(Object[] row) {
+        Integer productId = (Integer) row[0];
+        Integer nominationId = (Integer) row[1];
+
+        rankings.computeIfAbsent(nominationId, id -> new RankingTree())
+                .put(productId, ((Number) row[2]).longValue(), ((Number) row[3]).longValue());
+        nominationIds.put(productId, nominationId);
+    }
+}
@@ -0,0 +1,503 @@
+package championoftaste.api.service;
+
+import championoftaste.api.SubmissionStatus;
+import championoftaste.api.UserIdentity;
+import championoftaste.api.UserRole;
+import championoftaste.api.ingestion.ScoreJournal;
+import championoftaste.api.ingestion.Submission;
+import championoftaste.api.model.ParameterScore;
+import championoftaste.api.model.Score;
+import championoftaste.api.model.User;
+import championoftaste.api.repository.ParameterRepository;
+import championoftaste.api.repository.ParameterScoreRepository;
+import championoftaste.api.repository.ProductRepository;
+import championoftaste.api.repository.ScoreRepository;
+import championoftaste.api.request.ParameterScoreRequest;
+import championoftaste.api.request.ScoreRequest;
+import championoftaste.api.response.SubmissionResponse;
+import championoftaste.config.IngestionConfig;
+import championoftaste.exception.ApiRequestException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Сервис асинхронной записи оценок (write-behind). Принятая отправка оценок сохраняется в локальный журнал
+ * (ScoreJournal) и сразу подтверждается клиенту, а фоновая задача записывает накопившиеся отправки в базу данных
+ * большими пачками. После перезапуска приложения незаписанные отправки журнала записываются повторно.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class ScoreIngestionService {
+
+    private static final int STATUSES_MAX_SIZE = 100_000;   // максимальное количество хранимых состояний отправок
+    private static final long STATUSES_TTL_HOURS = 24;      // время хранения состояния отправки (в часах)
+
+    private final ScoreJournal scoreJournal;
+    private final ScoreService scoreService;
+    private final ParameterScoreService parameterScoreService;
+    private final ProductRepository productRepository;
+    private final ParameterRepository parameterRepository;
+    private final ScoreRepository scoreRepository;
+    private final ParameterScoreRepository parameterScoreRepository;
+    private final UserService userService;
+    private final IngestionConfig ingestionConfig;
+
+    // Отправки, записанные в журнал, но ещё не записанные в базу данных. Размер очереди ограничивается при приёме
+    // отправок (IngestionConfig.maxQueueSize), а не самой очередью: отправки, которые не удалось записать, всегда
+    // возвращаются в очередь.
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+
+    // Приём отправок (запись в журнал и в очередь) берёт блокировку на чтение, очистка журнала - на запись,
+    // поэтому журнал не очищается между записью отправки в журнал и её постановкой в очередь.
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+
+    // id отправок, повторно поставленных в очередь по журналу при запуске приложения.
+    private final Set<String> replayed = ConcurrentHashMap.newKeySet();
+
+    // Размер журнала после последнего сжатия (следующее сжатие - не раньше, чем журнал вырастет вдвое).
+    private final AtomicLong compactedSize = new AtomicLong();
+
+    private final Cache<String, SubmissionResponse> statuses = CacheBuilder.newBuilder()
+            .maximumSize(STATUSES_MAX_SIZE)
+            .expireAfterWrite(STATUSES_TTL_HOURS, TimeUnit.HOURS)
+            .build();
+
+    /**
+     * Принимает оценки продуктов авторизованного пользователя на асинхронную запись.
+     *
+     * @param scoreRequests оценки
+     * @return состояние принятой отправки
+     * @throws ApiRequestException выбрасывается в случае, если оценки заполнены некорректно
+     */
+    public SubmissionResponse submitScores(List<ScoreRequest> scoreRequests) throws ApiRequestException {
+        UserIdentity user = loadAuthorizedIdentity();
+        List<Submission.Item> items = new ArrayList<>();
+        Set<Integer> productIds = new HashSet<>();
+
+        for (ScoreRequest request : scoreRequests) {
+            Integer productId = request.getProduct() != null ? request.getProduct().getId() : null;
+            validate(request.getScore(), productId);
+
+            // Если пользователь выставляет оценку одному и тому же продукту несколько раз в одном запросе.
+            if (!productIds.add(productId)) {
+                throw new ApiRequestException("Вы уже выставили оценку данному продукту");
+            }
+
+            items.add(new Submission.Item(productId, null, request.getScore()));
+        }
+
+        return submit(Submission.Type.SCORES, user, items);
+    }
+
+    /**
+     * Принимает оценки критериев продуктов авторизованного пользователя на асинхронную запись.
+     *
+     * @param parameterScoreRequests оценки
+     * @return состояние принятой отправки
+     * @throws ApiRequestException выбрасывается в случае, если оценки заполнены некорректно
+     */
+    public SubmissionResponse submitParameterScores(List<ParameterScoreRequest> parameterScoreRequests)
+            throws ApiRequestException {
+        UserIdentity user = loadAuthorizedIdentity();
+        List<Submission.Item> items = new ArrayList<>();
+        Set<List<Integer>> keys = new HashSet<>();
+
+        for (ParameterScoreRequest request : parameterScoreRequests) {
+            Integer productId = request.getProduct() != null ? request.getProduct().getId() : null;
+            Integer parameterId = request.getParameter() != null ? request.getParameter().getId() : null;
+            validate(request.getScore(), productId);
+
+            if (parameterId == null) {
+                throw new ApiRequestException(
+                        "Оценка должна обязательно относиться к одному из критериев оценивания продукта"
+                );
+            }
+
+            // Если пользователь оценивает один и тот же критерий продукта несколько раз в одном запросе.
+            if (!keys.add(Arrays.asList(productId, parameterId))) {
+                throw new ApiRequestException("Вы уже выставили оценку данному критерию данного продукта");
+            }
+
+            items.add(new Submission.Item(productId, parameterId, request.getScore()));
+        }
+
+        return submit(Submission.Type.PARAMETER_SCORES, user, items);
+    }
+
+    /**
+     * Возвращает состояние отправки оценок.
+     *
+     * @param id id отправки
+     * @return состояние отправки или null, если отправка не найдена или принадлежит другому пользователю
+     */
+    public SubmissionResponse readStatus(String id) {
+        UserIdentity user = loadAuthorizedIdentity();
+        SubmissionResponse status = statuses.getIfPresent(id);
+
+        return status != null && (user.getRole() == UserRole.ROLE_ADMIN || status.getUserId().equals(user.getId()))
+                ? status
+                : null;
+    }
+
+    /**
+     * Записывает накопившиеся отправки в базу данных пачками (по IngestionConfig.batchSize отправок), пока очередь
+     * не опустеет. После каждой пачки журнал очищается (если очередь пуста) или сжимается (если он вырос).
+     * Вызывается и перед завершением номинаций, чтобы принятые оценки вошли в окончательные результаты.
+     */
+    @Scheduled(fixedDelayString = "${application.ingestion.drainDelayMillis:200}")
+    public synchronized void drain() {
+        List<Submission> batch = new ArrayList<>();
+
+        while (queue.drainTo(batch, ingestionConfig.getBatchSize()) > 0) {
+            List<Submission> completed = new ArrayList<>();
+            boolean stopped = false;
+
+            for (Submission.Type type : Submission.Type.values()) {
+                List<Submission> submissions = new ArrayList<>();
+
+                for (Submission submission : batch) {
+                    if (submission.getType() == type) {
+                        submissions.add(submission);
+                    }
+                }
+
+                // База данных недоступна: отправки остальных видов тоже не пытаемся записать.
+                if (stopped) {
+                    queue.addAll(submissions);
+                    continue;
+                }
+
+                List<Submission> written = write(type, submissions);
+                completed.addAll(written);
+                stopped = written.size() < submissions.size();
+            }
+
+            scoreJournal.appendAll(completed);
+
+            for (Submission submission : completed) {
+                statuses.put(submission.getId(), toResponse(submission));
+            }
+
+            // Все отправки пачки либо записаны, либо снова в очереди, поэтому незаписанные отправки - это очередь.
+            compact();
+
+            // Отправки, которые не удалось записать из-за временной ошибки, повторяются при следующем запуске.
+            if (completed.size() < batch.size()) {
+                return;
+            }
+
+            batch.clear();
+        }
+    }
+
+    /**
+     * Восстанавливает очередь по журналу при запуске приложения: отправки без записи об итоге ставятся в очередь
+     * повторно. Если приложение остановилось между записью оценок в базу данных и записью итога в журнал,
+     * повторная запись нарушает уникальность оценок, но все оценки отправки уже сохранены, поэтому отправка
+     * считается принятой (см. isStored).
+     */
+    @PostConstruct
+    public void replay() {
+        Map<String, Submission> pending = new LinkedHashMap<>();
+
+        // Журнал читается по строкам, в памяти остаются только незаписанные отправки.
+        scoreJournal.readEach(submission -> {
+            if (submission.getStatus() == SubmissionStatus.PENDING) {
+                pending.put(submission.getId(), submission);
+            } else {
+                pending.remove(submission.getId());
+                statuses.put(submission.getId(), toResponse(submission));
+            }
+        });
+
+        for (Submission submission : pending.values()) {
+            statuses.put(submission.getId(), toResponse(submission));
+            replayed.add(submission.getId());
+            queue.add(submission);
+        }
+    }
+
+    private UserIdentity loadAuthorizedIdentity() throws ApiRequestException {
+        try {
+            return userService.loadAuthorizedIdentity();
+        } catch (UsernameNotFoundException e) {
+            throw new ApiRequestException(e.getMessage());
+        }
+    }
+
+    private void validate(Short score, Integer productId) throws ApiRequestException {
+        if (score == null) {
+            throw new ApiRequestException("Обязательно надо указать значение оценки");
+        }
+
+        if (productId == null) {
+            throw new ApiRequestException("Оценка обязательно должна относиться к какому-либо продукту");
+        }
+    }
+
+    private SubmissionResponse submit(Submission.Type type, UserIdentity user, List<Submission.Item> items) {
+        if (items.isEmpty()) {
+            throw new ApiRequestException("Не передано ни одной оценки");
+        }
+
+        // Очередь растёт, только если база данных не успевает или недоступна: клиент повторит отправку позже.
+        if (queue.size() >= ingestionConfig.getMaxQueueSize()) {
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Слишком много оценок ожидают записи, повторите отправку позже"
+            );
+        }
+
+        Submission submission = new Submission(
+                UUID.randomUUID().toString(),
+                type,
+                user.getId(),
+                user.getRole() == UserRole.ROLE_EXPERT,
+                items,
+                SubmissionStatus.PENDING,
+                null
+        );
+        SubmissionResponse status = toResponse(submission);
+
+        // Состояние сохраняется до постановки в очередь, чтобы не перезаписать итог уже обработанной отправки.
+        statuses.put(submission.getId(), status);
+
+        journalLock.readLock().lock();
+        try {
+            scoreJournal.append(submission);
+            queue.add(submission);
+        } catch (RuntimeException e) {
+            statuses.invalidate(submission.getId());
+            throw e;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+
+        return status;
+    }
+
+    /**
+     * Записывает отправки одного вида в базу данных: сначала все одной транзакцией, а если она не удалась -
+     * каждую отдельно, чтобы некорректная отправка не отклоняла остальные. Если отдельная запись не удалась
+     * по другой причине (например, база данных недоступна), эта и остальные отправки возвращаются в очередь.
+     * Отправки с оценками продуктов завершённых номинаций отклоняются: их результаты уже заморожены.
+     *
+     * @param type        вид оценок
+     * @param submissions отправки
+     * @return записи об итогах обработанных отправок (без отправок, которые надо повторить)
+     */
+    private List<Submission> write(Submission.Type type, List<Submission> submissions) {
+        List<Submission> completed = new ArrayList<>();
+
+        if (submissions.isEmpty()) {
+            return completed;
+        }
+
+        Set<Integer> productIds = new HashSet<>();
+
+        for (Submission submission : submissions) {
+            for (Submission.Item item : submission.getItems()) {
+                productIds.add(item.getProductId());
+            }
+        }
+
+        Set<Integer> finished;
+        try {
+            finished = new HashSet<>(productRepository.findFinishedIdsByIdIn(productIds));
+        } catch (RuntimeException e) {
+            queue.addAll(submissions);
+            return completed;
+        }
+
+        List<Submission> open = new ArrayList<>();
+
+        for (Submission submission : submissions) {
+            if (submission.getItems().stream().anyMatch(item -> finished.contains(item.getProductId()))) {
+                completed.add(submission.complete(SubmissionStatus.REJECTED, "Номинация уже завершена"));
+            } else {
+                open.add(submission);
+            }
+        }
+
+        writeOpen(type, open, completed);
+
+        for (Submission submission : completed) {
+            replayed.remove(submission.getId());
+        }
+
+        return completed;
+    }
+
+    private void writeOpen(Submission.Type type, List<Submission> submissions, List<Submission> completed) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+
+        try {
+            save(type, submissions);
+
+            for (Submission submission : submissions) {
+                completed.add(submission.complete(SubmissionStatus.ACCEPTED, null));
+            }
+
+            return;
+        } catch (RuntimeException e) {
+            // одна из отправок некорректна или база данных недоступна - проверяем отправки по одной
+        }
+
+        for (int i = 0; i < submissions.size(); i++) {
+            Submission submission = submissions.get(i);
+
+            try {
+                save(type, Collections.singletonList(submission));
+                completed.add(submission.complete(SubmissionStatus.ACCEPTED, null));
+            } catch (ApiRequestException e) {
+                completed.add(replayed.contains(submission.getId()) && isStored(type, submission)
+                        ? submission.complete(SubmissionStatus.ACCEPTED, null)
+                        : submission.complete(SubmissionStatus.REJECTED, e.getMessage()));
+            } catch (DataIntegrityViolationException e) {
+                completed.add(submission.complete(SubmissionStatus.REJECTED, "Продукт или критерий не найден"));
+            } catch (RuntimeException e) {
+                // Остальные отправки упадут так же, поэтому не ждём недоступную базу данных для каждой из них.
+                queue.addAll(submissions.subList(i, submissions.size()));
+                break;
+            }
+        }
+    }
+
+    /**
+     * Проверяет, сохранены ли уже все оценки отправки (с теми же значениями). Отправка записывается одной
+     * транзакцией, поэтому её оценки сохраняются либо все, либо ни одной.
+     *
+     * @param type       вид оценок
+     * @param submission отправка
+     * @return true - все оценки отправки уже есть в базе данных, иначе false
+     */
+    private boolean isStored(Submission.Type type, Submission submission) {
+        Set<List<Object>> stored = new HashSet<>();
+        Set<Integer> productIds = new HashSet<>();
+        Set<Integer> parameterIds = new HashSet<>();
+
+        for (Submission.Item item : submission.getItems()) {
+            productIds.add(item.getProductId());
+            parameterIds.add(item.getParameterId());
+        }
+
+        if (type == Submission.Type.SCORES) {
+            for (Object[] row : scoreRepository
+                    .findProductIdsAndScoresByUserIdAndProductIdIn(submission.getUserId(), productIds)) {
+                stored.add(Arrays.asList(row[0], null, row[1]));
+            }
+        } else {
+            for (Object[] row : parameterScoreRepository
+                    .findProductIdsParameterIdsAndScoresByUserIdAndProductIdInAndParameterIdIn(
+                            submission.getUserId(),
+                            productIds,
+                            parameterIds
+                    )) {
+                stored.add(Arrays.asList(row[0], row[1], row[2]));
+            }
+        }
+
+        for (Submission.Item item : submission.getItems()) {
+            if (!stored.contains(Arrays.asList(item.getProductId(), item.getParameterId(), item.getScore()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void save(Submission.Type type, List<Submission> submissions) {
+        if (type == Submission.Type.SCORES) {
+            List<Score> scores = new ArrayList<>();
+
+            for (Submission submission : submissions) {
+                User user = userService.getReference(submission.getUserId());
+
+                for (Submission.Item item : submission.getItems()) {
+                    scores.add(new Score(
+                            item.getScore(),
+                            productRepository.getOne(item.getProductId()),
+                            user,
+                            submission.isExpert()
+                    ));
+                }
+            }
+
+            scoreService.createAll(scores);
+        } else {
+            List<ParameterScore> parameterScores = new ArrayList<>();
+
+            for (Submission submission : submissions) {
+                User user = userService.getReference(submission.getUserId());
+
+                for (Submission.Item item : submission.getItems()) {
+                    parameterScores.add(new ParameterScore(
+                            item.getScore(),
+                            productRepository.getOne(item.getProductId()),
+                            parameterRepository.getOne(item.getParameterId()),
+                            user
+                    ));
+                }
+            }
+
+            parameterScoreService.createAll(parameterScores);
+        }
+    }
+
+    /**
+     * Очищает журнал, если все отправки записаны в базу данных. Иначе, если журнал превысил
+     * IngestionConfig.compactThresholdBytes и вырос вдвое с последнего сжатия, оставляет в нём только
+     * незаписанные отправки (иначе при непрерывном потоке оценок журнал никогда не уменьшается).
+     * Вызывается, когда незаписанные отправки - это в точности очередь.
+     */
+    private void compact() {
+        journalLock.writeLock().lock();
+        try {
+            if (queue.isEmpty()) {
+                scoreJournal.truncate();
+                compactedSize.set(0);
+            } else {
+                long size = scoreJournal.size();
+
+                if (size >= ingestionConfig.getCompactThresholdBytes() && size >= 2 * compactedSize.get()) {
+                    scoreJournal.rewrite(new ArrayList<>(queue));
+                    compactedSize.set(scoreJournal.size());
+                }
+            }
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    private SubmissionResponse toResponse(Submission submission) {
+        return new SubmissionResponse(
+                submission.getId(),
+                submission.getStatus(),
+                submission.getMessage(),
+                submission.getUserId()
+        );
+    }
+}
@@ -1,24 +1,29 @@
 package championoftaste.api.service;
 
+import championoftaste.api.Keyset;
+import championoftaste.api.UserIdentity;
 import championoftaste.api.UserRole;
 import championoftaste.api.model.Product;
 import championoftaste.api.model.Score;
 import championoftaste.api.request.ScoreRequest;
-import championoftaste.api.model.User;
+import championoftaste.api.repository.ProductRepository;
 import championoftaste.api.repository.ScoreRepository;
-import championoftaste.api.AuthorizedUser;
+import championoftaste.api.response.BulkItemResponse;
+import championoftaste.api.response.ScoreResponse;
 import championoftaste.exception.ApiRequestException;
+import championoftaste.exception.DataIntegrityViolations;
 import championoftaste.validators.FieldsValidator;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolation;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Сервис, реализующий CRUD (Create, Read, Update, Delete) операции над оценками пользователей.
@@ -30,11 +35,17 @@ public class ScoreService implements CrudService<Score> {
     private final ScoreRepository scoreRepository;
     private final FieldsValidator<Score> fieldsValidator = new FieldsValidator<>();
     private final UserService userService;
+    private final ScoreStatisticsService scoreStatisticsService;
+    private final NominationVoterService nominationVoterService;
+    private final ProductRepository productRepository;
+    private final LeaderboardService leaderboardService;
+    private final RankingService rankingService;
+    private final CompositeScoringService compositeScoringService;
 
     private Score createScoreFromScoreRequest(ScoreRequest scoreRequest) {
-        User user;
+        UserIdentity user;
         try {
-            user = userService.loadUserByUsername(AuthorizedUser.getUsername());
+            user = userService.loadAuthorizedIdentity();
         } catch (UsernameNotFoundException e) {
             throw new ApiRequestException(e.getMessage());
         }
@@ -42,15 +53,23 @@ public class ScoreService implements CrudService<Score> {
         return new Score(
                 scoreRequest.getScore(),
                 scoreRequest.getProduct(),
-                user,
+                userService.getReference(user.getId()),
                 user.getRole() == UserRole.ROLE_EXPERT
         );
     }
 
+    private RuntimeException toApiRequestException(DataIntegrityViolationException e) {
+        return DataIntegrityViolations.isViolated(e, Score.PRODUCT_USER_CONSTRAINT)
+                ? new ApiRequestException("Вы уже выставили оценку данному продукту")
+                : e;
+    }
+
+    @Transactional
     public void create(ScoreRequest scoreRequest) throws ApiRequestException {
         create(createScoreFromScoreRequest(scoreRequest));
     }
 
+    @Transactional
     public void create(List<ScoreRequest> scoreRequests) throws ApiRequestException {
         List<Score> scores = new ArrayList<>();
 
@@ -61,24 +80,129 @@ public class ScoreService implements CrudService<Score> {
         createAll(scores);
     }
 
+    @Transactional
     public void createAll(List<Score> scores) throws ApiRequestException {
+        // id продуктов, которым выставляются оценки, по id пользователей, которые их выставляют.
+        Map<Integer, Set<Integer>> productIdsByUserId = new HashMap<>();
+
         for (Score score : scores) {
             // Проверяем все поля создаваемой оценки пользователя на корректность.
             for (ConstraintViolation<Score> violation : fieldsValidator.validate(score)) {
                 throw new ApiRequestException(violation.getMessage());
             }
 
-            // Если пользователь уже выставлял оценку данному продукту.
-            if (scoreRepository
-                    .findByProductAndUser(score.getProduct(), score.getUser())
-                    .isPresent()) {
+            // Если пользователь выставляет оценку одному и тому же продукту несколько раз в одном запросе.
+            if (!productIdsByUserId
+                    .computeIfAbsent(score.getUser().getId(), userId -> new HashSet<>())
+                    .add(score.getProduct().getId())) {
+                throw new ApiRequestException("Вы уже выставили оценку данному продукту");
+            }
+        }
+
+        // Если пользователь уже выставлял оценку какому-либо из продуктов (один запрос на каждого пользователя).
+        for (Map.Entry<Integer, Set<Integer>> entry : productIdsByUserId.entrySet()) {
+            if (!scoreRepository
+                    .findProductIdsByUserIdAndProductIdIn(entry.getKey(), entry.getValue())
+                    .isEmpty()) {
                 throw new ApiRequestException("Вы уже выставили оценку данному продукту");
             }
         }
 
-        scoreRepository.saveAll(scores);
+        // Уникальность оценок дополнительно гарантируется ограничением в базе данных (на случай одновременных запросов).
+        try {
+            scoreRepository.saveAll(scores);
+            scoreRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw toApiRequestException(e);
+        }
+
+        scoreStatisticsService.add(scores);
+        rankingService.add(scores);
+        compositeScoringService.addScores(scores);
+        nominationVoterService.add(scores);
+        leaderboardService.markChanged(scores);
     }
 
+    /**
+     * Сохраняет корректные оценки авторизованного пользователя и возвращает итог по каждой оценке: некорректные
+     * оценки и повторы не мешают сохранению остальных. Вызывается для частей отправки (см. Bulk).
+     *
+     * @param scoreRequests оценки (часть отправки)
+     * @param offset        номер первой оценки части в отправке
+     * @return итоги обработки оценок
+     */
+    @Transactional
+    public List<BulkItemResponse> createEach(List<ScoreRequest> scoreRequests, int offset) throws ApiRequestException {
+        BulkItemResponse[] results = new BulkItemResponse[scoreRequests.size()];
+        // Оценки, прошедшие проверку полей, по id продуктов (не больше одной оценки на продукт).
+        Map<Integer, Integer> indexByProductId = new LinkedHashMap<>();
+        List<Score> scores = new ArrayList<>();
+
+        for (int i = 0; i < scoreRequests.size(); i++) {
+            Score score = createScoreFromScoreRequest(scoreRequests.get(i));
+            scores.add(score);
+
+            for (ConstraintViolation<Score> violation : fieldsValidator.validate(score)) {
+                results[i] = BulkItemResponse.invalid(offset + i, violation.getMessage());
+                break;
+            }
+
+            if (results[i] == null && score.getProduct().getId() == null) {
+                results[i] = BulkItemResponse.invalid(offset + i, "Не удалось найти продукт");
+            }
+
+            if (results[i] == null && indexByProductId.putIfAbsent(score.getProduct().getId(), i) != null) {
+                results[i] = BulkItemResponse.duplicate(offset + i, "Вы уже выставили оценку данному продукту");
+            }
+        }
+
+        if (!indexByProductId.isEmpty()) {
+            Integer userId = scores.get(0).getUser().getId();
+
+            // Продукты, которым пользователь уже выставлял оценки (один запрос).
+            for (Integer productId : scoreRepository.findProductIdsByUserIdAndProductIdIn(
+                    userId,
+                    indexByProductId.keySet()
+            )) {
+                int i = indexByProductId.remove(productId);
+                results[i] = BulkItemResponse.duplicate(offset + i, "Вы уже выставили оценку данному продукту");
+            }
+        }
+
+        if (!indexByProductId.isEmpty()) {
+            // Несуществующие продукты (один запрос).
+            Set<Integer> missing = new HashSet<>(indexByProductId.keySet());
+            missing.removeAll(productRepository.findIdsByIdIn(indexByProductId.keySet()));
+
+            for (Integer productId : missing) {
+                int i = indexByProductId.remove(productId);
+                results[i] = BulkItemResponse.invalid(offset + i, "Не удалось найти продукт");
+            }
+        }
+
+        List<Score> created = new ArrayList<>();
+
+        for (int i : indexByProductId.values()) {
+            created.add(scores.get(i));
+        }
+
+        // Одновременная запись тех же оценок другим запросом нарушит ограничение уникальности, и Bulk повторит часть.
+        scoreRepository.saveAll(created);
+        scoreRepository.flush();
+        scoreStatisticsService.add(created);
+        rankingService.add(created);
+        compositeScoringService.addScores(created);
+        nominationVoterService.add(created);
+        leaderboardService.markChanged(created);
+
+        for (int i : indexByProductId.values()) {
+            results[i] = BulkItemResponse.created(offset + i, scores.get(i).getId());
+        }
+
+        return Arrays.asList(results);
+    }
+
+    @Transactional
     public boolean update(Integer id, ScoreRequest scoreRequest) throws ApiRequestException {
         Score score = scoreRepository.findById(id).orElse(null);
 
@@ -90,25 +214,42 @@ public class ScoreService implements CrudService<Score> {
     }
 
     @Override
+    @Transactional
     public void create(Score score) throws ApiRequestException {
         // Проверяем все поля создаваемой оценки пользователя на корректность.
         for (ConstraintViolation<Score> violation : fieldsValidator.validate(score)) {
             throw new ApiRequestException(violation.getMessage());
         }
 
-        // Если пользователь уже выставлял оценку данному продукту.
-        if (scoreRepository
-                .findByProductAndUser(score.getProduct(), score.getUser())
-                .isPresent()) {
-            throw new ApiRequestException("Вы уже выставили оценку данному продукту");
+        // Если пользователь уже выставлял оценку данному продукту, то вставка нарушит ограничение уникальности.
+        try {
+            scoreRepository.saveAndFlush(score);
+        } catch (DataIntegrityViolationException e) {
+            throw toApiRequestException(e);
         }
 
-        scoreRepository.save(score);
+        scoreStatisticsService.add(Collections.singletonList(score));
+        rankingService.add(Collections.singletonList(score));
+        compositeScoringService.addScores(Collections.singletonList(score));
+        nominationVoterService.add(Collections.singletonList(score));
+        leaderboardService.markChanged(Collections.singletonList(score));
     }
 
     @Override
-    public List<Score> readAll() {
-        return scoreRepository.findAll();
+    public List<Score> readAll(Integer afterId, int size) {
+        return scoreRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ScoreResponse> readAllResponses(Integer afterId, int size) {
+        return scoreRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ScoreResponse> readResponsesByProduct(Integer productId, Integer afterId, int size) {
+        return scoreRepository.findResponsesByProductId(productId, Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<ScoreResponse> readResponsesByUser(Integer userId, Integer afterId, int size) {
+        return scoreRepository.findResponsesByUserId(userId, Keyset.cursor(afterId), Keyset.page(size));
     }
 
     @Override
@@ -117,6 +258,7 @@ public class ScoreService implements CrudService<Score> {
     }
 
     @Override
+    @Transactional
     public boolean update(Integer id, Score updated) throws ApiRequestException {
         Score score = scoreRepository.findById(id).orElse(null);
 
@@ -137,11 +279,21 @@ public class ScoreService implements CrudService<Score> {
                 throw new ApiRequestException("Такая оценка уже выставлена");
             }
 
+            // Запоминаем прежнее значение оценки, чтобы заменить его в статистике продукта.
+            Score previous = new Score(score.getScore(), score.getProduct(), score.getUser(), score.isExpert());
+
             // Сохраняем обновлённые данные.
             updated.setId(id);
             updated.setProduct(score.getProduct());
             updated.setUser(score.getUser());
             scoreRepository.save(updated);
+            scoreStatisticsService.remove(Collections.singletonList(previous));
+            scoreStatisticsService.add(Collections.singletonList(updated));
+            rankingService.remove(Collections.singletonList(previous));
+            compositeScoringService.removeScores(Collections.singletonList(previous));
+            rankingService.add(Collections.singletonList(updated));
+            compositeScoringService.addScores(Collections.singletonList(updated));
+            leaderboardService.markChanged(Collections.singletonList(updated));
 
             return true;
         }
@@ -150,9 +302,17 @@ public class ScoreService implements CrudService<Score> {
     }
 
     @Override
+    @Transactional
     public boolean delete(Integer id) {
-        if (scoreRepository.existsById(id)) {
-            scoreRepository.deleteById(id);
+        Score score = scoreRepository.findById(id).orElse(null);
+
+        if (score != null) {
+            scoreRepository.delete(score);
+            scoreStatisticsService.remove(Collections.singletonList(score));
+            rankingService.remove(Collections.singletonList(score));
+            compositeScoringService.removeScores(Collections.singletonList(score));
+            nominationVoterService.remove(Collections.singletonList(score));
+            leaderboardService.markChanged(Collections.singletonList(score));
             return true;
         }
 
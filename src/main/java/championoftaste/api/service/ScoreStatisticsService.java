@@ -0,0 +1,180 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.Score;
+import championoftaste.api.model.ScoreStatistics;
+import championoftaste.api.repository.ScoreStatisticsRepository;
+import championoftaste.api.response.ProductResult;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис, поддерживающий агрегированную статистику оценок продуктов в актуальном состоянии.
+ * Все методы изменения статистики должны вызываться в той же транзакции, в которой изменяются оценки.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class ScoreStatisticsService {
+
+    private final ScoreStatisticsRepository scoreStatisticsRepository;
+
+    /**
+     * Возвращает статистику оценок продукта.
+     *
+     * @param productId id продукта
+     * @return статистика оценок продукта или null, если продукту ещё не выставлялись оценки
+     */
+    public ScoreStatistics read(Integer productId) {
+        return scoreStatisticsRepository.findById(productId).orElse(null);
+    }
+
+    /**
+     * Возвращает таблицу результатов номинации (один запрос по статистике продуктов, без чтения оценок).
+     *
+     * @param nominationId id номинации
+     * @return результаты продуктов номинации, упорядоченные по месту
+     */
+    public List<ProductResult> readResults(Integer nominationId) {
+        List<ProductResult> results = scoreStatisticsRepository.findResultsByNominationId(nominationId);
+
+        results.sort(Comparator
+                .comparingDouble(ProductResult::getAverage).reversed()
+                .thenComparing(Comparator.comparingLong(ProductResult::getVotesCount).reversed())
+                .thenComparing(ProductResult::getProductId));
+
+        for (int i = 0; i < results.size(); i++) {
+            ProductResult result = results.get(i);
+
+            // Продукты с одинаковым средним значением делят место (1, 1, 3, ...).
+            result.setRank(i > 0 && results.get(i - 1).getAverage() == result.getAverage()
+                    ? results.get(i - 1).getRank()
+                    : i + 1);
+        }
+
+        return results;
+    }
+
+    /**
+     * Учитывает новые оценки в статистике продуктов.
+     *
+     * @param scores добавленные оценки
+     */
+    @Transactional
+    public void add(Collection<Score> scores) {
+        Map<Integer, ScoreStatistics> statistics = lock(getProductIds(scores));
+
+        for (Score score : scores) {
+            statistics.get(score.getProduct().getId()).add(score.getScore(), score.isExpert());
+        }
+
+        scoreStatisticsRepository.saveAll(statistics.values());
+    }
+
+    /**
+     * Исключает удалённые оценки из статистики продуктов.
+     *
+     * @param scores удалённые оценки
+     */
+    @Transactional
+    public void remove(Collection<Score> scores) {
+        Map<Integer, ScoreStatistics> statistics = lock(getProductIds(scores));
+        Set<Integer> outdated = new HashSet<>();
+
+        for (Score score : scores) {
+            Integer productId = score.getProduct().getId();
+
+            if (statistics.get(productId).remove(score.getScore(), score.isExpert())) {
+                outdated.add(productId);
+            }
+        }
+
+        // Минимум и максимум нельзя пересчитать по остальным полям, поэтому, если была удалена граничная оценка,
+        // они пересчитываются по таблице оценок (перед запросом Hibernate сбросит удаление оценок в базу данных).
+        for (Integer productId : outdated) {
+            for (Object[] minAndMax : scoreStatisticsRepository.calculateMinAndMax(productId)) {
+                statistics.get(productId).setMin((Short) minAndMax[0]);
+                statistics.get(productId).setMax((Short) minAndMax[1]);
+            }
+        }
+
+        scoreStatisticsRepository.saveAll(statistics.values());
+    }
+
+    /**
+     * Полностью пересчитывает статистику указанных продуктов по таблице оценок.
+     *
+     * @param productIds id продуктов, статистику которых надо пересчитать
+     */
+    @Transactional
+    public void recalculate(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, ScoreStatistics> statistics = lock(new HashSet<>(productIds));
+        Map<Integer, ScoreStatistics> calculated = scoreStatisticsRepository
+                .calculateAllByProductIdIn(productIds)
+                .stream()
+                .collect(Collectors.toMap(ScoreStatistics::getProductId, Function.identity()));
+
+        for (ScoreStatistics current : statistics.values()) {
+            ScoreStatistics actual = calculated.getOrDefault(current.getProductId(), new ScoreStatistics());
+            actual.setProductId(current.getProductId());
+            actual.setVersion(current.getVersion());
+            scoreStatisticsRepository.save(actual);
+        }
+    }
+
+    /**
+     * Заполняет статистику по уже имеющимся оценкам, если она ещё ни разу не считалась (например, сразу после
+     * появления таблицы статистики в существующей базе данных).
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)  // до построения рейтингов номинаций
+    public void initialize() {
+        if (scoreStatisticsRepository.count() == 0) {
+            scoreStatisticsRepository.saveAll(scoreStatisticsRepository.calculateAll());
+        }
+    }
+
+    private Set<Integer> getProductIds(Collection<Score> scores) {
+        return scores.stream().map(score -> score.getProduct().getId()).collect(Collectors.toSet());
+    }
+
+    /**
+     * Блокирует (до конца транзакции) статистику указанных продуктов, создавая недостающие записи.
+     *
+     * @param productIds id продуктов
+     * @return статистика продуктов по их id
+     */
+    private Map<Integer, ScoreStatistics> lock(Set<Integer> productIds) {
+        Map<Integer, ScoreStatistics> statistics = new HashMap<>();
+
+        if (productIds.isEmpty()) {
+            return statistics;
+        }
+
+        scoreStatisticsRepository.insertMissing(productIds);
+
+        for (ScoreStatistics current : scoreStatisticsRepository.findAllByProductIdInOrderByProductId(productIds)) {
+            statistics.put(current.getProductId(), current);
+        }
+
+        for (Integer productId : productIds) {
+            statistics.computeIfAbsent(productId, ScoreStatistics::new);
+        }
+
+        return statistics;
+    }
+}
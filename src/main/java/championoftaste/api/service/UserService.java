@@ -1,22 +1,34 @@
 package championoftaste.api.service;
 
 import championoftaste.exception.ApiRequestException;
+import championoftaste.api.Keyset;
+import championoftaste.api.AuthorizedUser;
+import championoftaste.api.UserIdentity;
 import championoftaste.api.UserRole;
+import championoftaste.api.model.ParameterScore;
+import championoftaste.api.model.Score;
 import championoftaste.api.model.User;
 import championoftaste.api.repository.UserRepository;
 import championoftaste.api.request.UserRequest;
+import championoftaste.api.response.UserResponse;
 import championoftaste.validators.FieldsValidator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import lombok.AllArgsConstructor;
 
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolation;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Сервис, реализующий CRUD (Create, Read, Update, Delete) операции над пользователями.
@@ -27,8 +39,18 @@ public class UserService implements CrudService<User>, UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ScoreStatisticsService scoreStatisticsService;
+    private final RankingService rankingService;
+    private final LeaderboardService leaderboardService;
+    private final CompositeScoringService compositeScoringService;
     private final FieldsValidator<User> fieldsValidator = new FieldsValidator<>();
 
+    // Данные авторизованных пользователей по имени пользователя (чтобы не искать пользователя при каждом запросе).
+    private final Cache<String, UserIdentity> identities = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
     public void register(UserRequest request) throws ApiRequestException {
         // Создаём нового пользователя.
         User user = new User(
@@ -98,8 +120,12 @@ public class UserService implements CrudService<User>, UserDetailsService {
     }
 
     @Override
-    public List<User> readAll() {
-        return userRepository.findAll();
+    public List<User> readAll(Integer afterId, int size) {
+        return userRepository.findAllByIdGreaterThanOrderByIdAsc(Keyset.cursor(afterId), Keyset.page(size));
+    }
+
+    public List<UserResponse> readAllResponses(Integer afterId, int size) {
+        return userRepository.findAllResponses(Keyset.cursor(afterId), Keyset.page(size));
     }
 
     @Override
@@ -133,6 +159,7 @@ public class UserService implements CrudService<User>, UserDetailsService {
             updated.setParameterScores(user.getParameterScores());
             updated.setScores(user.getScores());
             userRepository.save(updated);
+            evictIdentity(id);
 
             return true;
         }
@@ -141,9 +168,23 @@ public class UserService implements CrudService<User>, UserDetailsService {
     }
 
     @Override
+    @Transactional
     public boolean delete(Integer id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
+        User user = userRepository.findById(id).orElse(null);
+
+        if (user != null) {
+            // Оценки пользователя удаляются вместе с ним, поэтому их надо исключить из статистики продуктов
+            // и рейтингов номинаций, а вместе с оценками критериев - из итоговых оценок продуктов.
+            List<Score> scores = new ArrayList<>(user.getScores());
+            List<ParameterScore> parameterScores = new ArrayList<>(user.getParameterScores());
+
+            userRepository.delete(user);
+            scoreStatisticsService.remove(scores);
+            rankingService.remove(scores);
+            leaderboardService.markChanged(scores);
+            compositeScoringService.removeScores(scores);
+            compositeScoringService.removeParameterScores(parameterScores);
+            evictIdentity(id);
             return true;
         }
 
@@ -167,4 +208,85 @@ public class UserService implements CrudService<User>, UserDetailsService {
 
         return user;
     }
+
+    /**
+     * Получает минимальные данные пользователя по его имени пользователя (результат кэшируется).
+     *
+     * @param username имя пользователя
+     * @return данные пользователя с указанным именем пользователя
+     * @throws UsernameNotFoundException выбрасывается в случае, если пользователь не найден
+     */
+    public UserIdentity loadIdentityByUsername(String username) throws UsernameNotFoundException {
+        UserIdentity identity = identities.getIfPresent(username);
+
+        if (identity == null) {
+            User user = loadUserByUsername(username);
+            identity = new UserIdentity(user.getId(), user.getUsername(), user.getRole());
+            identities.put(username, identity);
+        }
+
+        return identity;
+    }
+
+    /**
+     * Получает минимальные данные авторизованного пользователя по его имени пользователя (из кэша).
+     * Данные из токена сверяются с ними: токен действует несколько дней, и за это время пользователя могут удалить
+     * или изменить его роль.
+     *
+     * @return данные авторизованного пользователя
+     * @throws UsernameNotFoundException выбрасывается в случае, если пользователь не найден
+     */
+    public UserIdentity loadAuthorizedIdentity() throws UsernameNotFoundException {
+        String username = AuthorizedUser.getUsername();
+        UserIdentity identity = loadIdentityByUsername(username);
+        UserIdentity claimed = AuthorizedUser.getIdentity();
+
+        // Токен выдан удалённому пользователю, имя которого с тех пор занял другой пользователь.
+        if (claimed != null && !claimed.getId().equals(identity.getId())) {
+            throw new UsernameNotFoundException(String.format("Имя пользователя %s не найдено", username));
+        }
+
+        return identity;
+    }
+
+    /**
+     * Возвращает ссылку на авторизованного пользователя без загрузки его данных из базы данных.
+     *
+     * @return ссылка на пользователя
+     * @throws UsernameNotFoundException выбрасывается в случае, если пользователь не найден
+     */
+    public User loadAuthorizedReference() throws UsernameNotFoundException {
+        return getReference(loadAuthorizedIdentity().getId());
+    }
+
+    /**
+     * Возвращает ссылку на пользователя с указанным id без загрузки его данных из базы данных
+     * (достаточно для привязки к пользователю оценок и комментариев).
+     *
+     * @param id id пользователя
+     * @return ссылка на пользователя
+     */
+    public User getReference(Integer id) {
+        return userRepository.getOne(id);
+    }
+
+    /**
+     * Возвращает ссылку на пользователя по его имени пользователя без загрузки его данных из базы данных.
+     *
+     * @param username имя пользователя
+     * @return ссылка на пользователя
+     * @throws UsernameNotFoundException выбрасывается в случае, если пользователь не найден
+     */
+    public User loadReferenceByUsername(String username) throws UsernameNotFoundException {
+        return getReference(loadIdentityByUsername(username).getId());
+    }
+
+    /**
+     * Удаляет из кэша данные пользователя (после изменения или удаления пользователя).
+     *
+     * @param id id пользователя
+     */
+    public void evictIdentity(Integer id) {
+        identities.asMap().values().removeIf(identity -> identity.getId().equals(id));
+    }
 }
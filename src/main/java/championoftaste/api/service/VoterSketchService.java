@@ -0,0 +1,202 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.Score;
+import championoftaste.api.repository.NominationVoterRepository;
+import championoftaste.api.statistics.HyperLogLog;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Сервис, приближённо считающий количество проголосовавших пользователей в номинациях и группах номинаций
+ * (для обновляемых в реальном времени панелей). Каждая номинация и группа занимает фиксированный объём памяти,
+ * учёт новой оценки не выделяет память. Счётчики периодически строятся заново по таблице проголосовавших,
+ * поэтому удалённые оценки и ошибка оценки не накапливаются.
+ */
+@Service
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class VoterSketchService {
+
+    private static final Integer NONE = 0;  // продукт вне номинации или номинация вне группы
+
+    private final NominationVoterRepository nominationVoterRepository;
+    private final Map<Integer, HyperLogLog> nominationSketches = new ConcurrentHashMap<>();
+    private final Map<Integer, HyperLogLog> groupSketches = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> nominationIdsByProductId = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> groupIdsByNominationId = new ConcurrentHashMap<>();
+
+    // Счётчики оценок, добавленных во время пересчёта (пусто - пересчёт не выполняется): таблица проголосовавших
+    // читается до их добавления, поэтому они объединяются с пересчитанными счётчиками. Изменяются под блокировкой.
+    private final Map<Integer, HyperLogLog> recountNominationSketches = new HashMap<>();
+    private final Map<Integer, HyperLogLog> recountGroupSketches = new HashMap<>();
+    private final AtomicBoolean recounting = new AtomicBoolean(false);
+
+    /**
+     * Возвращает приближённое количество пользователей, проголосовавших в номинации.
+     *
+     * @param nominationId id номинации
+     * @return приближённое количество проголосовавших
+     */
+    public long estimate(Integer nominationId) {
+        HyperLogLog sketch = nominationSketches.get(nominationId);
+        return sketch != null ? sketch.estimate() : 0;
+    }
+
+    /**
+     * Возвращает приближённое количество различных пользователей, проголосовавших в номинациях группы.
+     *
+     * @param groupId id группы номинаций
+     * @return приближённое количество проголосовавших
+     */
+    public long estimateByGroup(Integer groupId) {
+        HyperLogLog sketch = groupSketches.get(groupId);
+        return sketch != null ? sketch.estimate() : 0;
+    }
+
+    /**
+     * Учитывает новые оценки в счётчиках (после фиксации транзакции, если она есть).
+     *
+     * @param scores добавленные оценки
+     */
+    public void add(Collection<Score> scores) {
+        resolve(scores);
+
+        AfterCommit.run(() -> addToSketches(scores));
+    }
+
+    /**
+     * Строит счётчики заново по таблице проголосовавших (точный пересчёт). Оценки, добавленные во время
+     * пересчёта, объединяются с новыми счётчиками, а не теряются до следующего пересчёта.
+     */
+    @Scheduled(
+            initialDelayString = "${application.voters.recountDelayMillis:600000}",
+            fixedDelayString = "${application.voters.recountDelayMillis:600000}"
+    )
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)   // после заполнения таблицы проголосовавших
+    public void recount() {
+        synchronized (this) {
+            recounting.set(true);
+        }
+
+        Map<Integer, Integer> nominationIds = new HashMap<>();
+        Map<Integer, Integer> groupIds = new HashMap<>();
+
+        for (Object[] ids : nominationVoterRepository.findAllProductNominationAndGroupIds()) {
+            nominationIds.put((Integer) ids[0], (Integer) ids[1]);
+            groupIds.put((Integer) ids[1], ids[2] != null ? (Integer) ids[2] : NONE);
+        }
+
+        Map<Integer, HyperLogLog> nominations = new HashMap<>();
+        Map<Integer, HyperLogLog> groups = new HashMap<>();
+
+        for (Object[] voter : nominationVoterRepository.findAllNominationIdsAndUserIds()) {
+            Integer nominationId = (Integer) voter[0];
+            Integer groupId = groupIds.getOrDefault(nominationId, NONE);
+            int userId = (Integer) voter[1];
+
+            nominations.computeIfAbsent(nominationId, id -> new HyperLogLog()).add(userId);
+
+            if (!NONE.equals(groupId)) {
+                groups.computeIfAbsent(groupId, id -> new HyperLogLog()).add(userId);
+            }
+        }
+
+        synchronized (this) {
+            merge(nominations, recountNominationSketches);
+            merge(groups, recountGroupSketches);
+            recountNominationSketches.clear();
+            recountGroupSketches.clear();
+            recounting.set(false);
+
+            nominationIdsByProductId.putAll(nominationIds);
+            nominationIdsByProductId.keySet().retainAll(nominationIds.keySet());
+            groupIdsByNominationId.putAll(groupIds);
+            groupIdsByNominationId.keySet().retainAll(groupIds.keySet());
+            replace(nominationSketches, nominations);
+            replace(groupSketches, groups);
+        }
+    }
+
+    /**
+     * Загружает номинации и группы продуктов, которые появились после последнего пересчёта (один запрос).
+     */
+    private void resolve(Collection<Score> scores) {
+        Set<Integer> missing = null;
+
+        for (Score score : scores) {
+            Integer productId = score.getProduct().getId();
+
+            if (!nominationIdsByProductId.containsKey(productId)) {
+                if (missing == null) {
+                    missing = new HashSet<>();
+                }
+
+                missing.add(productId);
+            }
+        }
+
+        if (missing == null) {
+            return;
+        }
+
+        for (Object[] ids : nominationVoterRepository.findProductNominationAndGroupIdsByProductIdIn(missing)) {
+            nominationIdsByProductId.put((Integer) ids[0], (Integer) ids[1]);
+            groupIdsByNominationId.put((Integer) ids[1], ids[2] != null ? (Integer) ids[2] : NONE);
+            missing.remove(ids[0]);
+        }
+
+        // Продукты вне номинаций не учитываются.
+        for (Integer productId : missing) {
+            nominationIdsByProductId.put(productId, NONE);
+        }
+    }
+
+    private synchronized void addToSketches(Collection<Score> scores) {
+        for (Score score : scores) {
+            Integer nominationId = nominationIdsByProductId.getOrDefault(score.getProduct().getId(), NONE);
+
+            if (NONE.equals(nominationId)) {
+                continue;
+            }
+
+            int userId = score.getUser().getId();
+            Integer groupId = groupIdsByNominationId.getOrDefault(nominationId, NONE);
+
+            nominationSketches.computeIfAbsent(nominationId, id -> new HyperLogLog()).add(userId);
+
+            if (recounting.get()) {
+                recountNominationSketches.computeIfAbsent(nominationId, id -> new HyperLogLog()).add(userId);
+            }
+
+            if (!NONE.equals(groupId)) {
+                groupSketches.computeIfAbsent(groupId, id -> new HyperLogLog()).add(userId);
+
+                if (recounting.get()) {
+                    recountGroupSketches.computeIfAbsent(groupId, id -> new HyperLogLog()).add(userId);
+                }
+            }
+        }
+    }
+
+    private static void merge(Map<Integer, HyperLogLog> rebuilt, Map<Integer, HyperLogLog> added) {
+        for (Map.Entry<Integer, HyperLogLog> entry : added.entrySet()) {
+            rebuilt.computeIfAbsent(entry.getKey(), id -> new HyperLogLog()).merge(entry.getValue());
+        }
+    }
+
+    private static void replace(Map<Integer, HyperLogLog> sketches, Map<Integer, HyperLogLog> rebuilt) {
+        sketches.putAll(rebuilt);
+        sketches.keySet().retainAll(rebuilt.keySet());
+    }
+}
@@ -0,0 +1,122 @@
+package championoftaste.api.statistics;
+
+/**
+ * Приближённый счётчик количества различных значений (HyperLogLog).
+ * Занимает фиксированный объём памяти (2^precision байт), добавление значения не выделяет память.
+ * Стандартная ошибка оценки - 1.04 / sqrt(2^precision), т.е. около 1.6% при точности 12.
+ * Удаление значений не поддерживается: после удаления оценок счётчик надо строить заново.
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private final int precision;        // количество бит хеша, определяющих номер регистра
+    private final byte[] registers;     // максимальные позиции первой единицы для каждого регистра
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Точность должна быть от 4 до 16");
+        }
+
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Учитывает значение в счётчике.
+     *
+     * @param value значение (например, id пользователя)
+     */
+    public synchronized void add(int value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // Позиция первой единицы в оставшихся битах (сторожевая единица ограничивает её сверху).
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Учитывает в счётчике все значения, учтённые в другом счётчике той же точности.
+     *
+     * @param other другой счётчик
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Объединять можно только счётчики одной точности");
+        }
+
+        byte[] otherRegisters;
+
+        // Регистры другого счётчика копируются под его блокировкой, чтобы не держать две блокировки сразу.
+        synchronized (other) {
+            otherRegisters = other.registers.clone();
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] < otherRegisters[i]) {
+                    registers[i] = otherRegisters[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает оценку количества различных учтённых значений.
+     *
+     * @return оценка количества различных значений
+     */
+    public synchronized long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+
+        // Для малых количеств точнее линейный подсчёт по пустым регистрам.
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * Перемешивает биты значения (финализатор SplitMix64), чтобы последовательные id равномерно распределялись
+     * по регистрам.
+     */
+    private static long hash(int value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
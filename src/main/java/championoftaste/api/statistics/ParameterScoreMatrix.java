@@ -0,0 +1,85 @@
+package championoftaste.api.statistics;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Матрица оценок критериев номинации (продукты x критерии): количество оценок, среднее значение и стандартное
+ * отклонение в каждой ячейке. Ячейки хранятся в одномерных массивах примитивов построчно: ячейка продукта
+ * productIds[i] и критерия parameterIds[j] имеет индекс i * parameterIds.length + j.
+ */
+@Getter // создаёт дефолтные геттеры автоматически для каждого поля класса
+public class ParameterScoreMatrix {
+
+    private final int[] productIds;         // id продуктов (строки матрицы)
+    private final String[] productNames;    // названия продуктов
+    private final int[] parameterIds;       // id критериев (столбцы матрицы)
+    private final String[] parameterNames;  // названия критериев
+    private final long[] counts;            // количество оценок в ячейках
+    private final double[] means;           // средние значения оценок в ячейках (0 - оценок нет)
+    private final double[] deviations;      // стандартные отклонения оценок в ячейках (0 - оценок нет)
+
+    private ParameterScoreMatrix(Map<Integer, String> products, Map<Integer, String> parameters) {
+        int size = products.size() * parameters.size();
+
+        this.productIds = products.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.productNames = products.values().toArray(new String[0]);
+        this.parameterIds = parameters.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.parameterNames = parameters.values().toArray(new String[0]);
+        this.counts = new long[size];
+        this.means = new double[size];
+        this.deviations = new double[size];
+    }
+
+    /**
+     * Строит матрицу по сгруппированным оценкам критериев.
+     *
+     * @param rows строки вида (id продукта, название продукта, id критерия, название критерия, количество оценок,
+     *             сумма оценок, сумма квадратов оценок), упорядоченные по id продукта и id критерия
+     * @return матрица оценок критериев
+     */
+    public static ParameterScoreMatrix of(List<Object[]> rows) {
+        Map<Integer, String> products = new LinkedHashMap<>();
+        Map<Integer, String> parameters = new LinkedHashMap<>();
+
+        for (Object[] row : rows) {
+            products.putIfAbsent((Integer) row[0], (String) row[1]);
+            parameters.putIfAbsent((Integer) row[2], (String) row[3]);
+        }
+
+        ParameterScoreMatrix matrix = new ParameterScoreMatrix(products, parameters);
+        Map<Integer, Integer> productIndexes = indexes(matrix.productIds);
+        Map<Integer, Integer> parameterIndexes = indexes(matrix.parameterIds);
+
+        for (Object[] row : rows) {
+            long count = ((Number) row[4]).longValue();
+
+            if (count == 0) {
+                continue;
+            }
+
+            int cell = productIndexes.get((Integer) row[0]) * matrix.parameterIds.length
+                    + parameterIndexes.get((Integer) row[2]);
+            double mean = ((Number) row[5]).doubleValue() / count;
+
+            matrix.counts[cell] = count;
+            matrix.means[cell] = mean;
+            matrix.deviations[cell] = Math.sqrt(Math.max(0.0, ((Number) row[6]).doubleValue() / count - mean * mean));
+        }
+
+        return matrix;
+    }
+
+    private static Map<Integer, Integer> indexes(int[] ids) {
+        Map<Integer, Integer> indexes = new LinkedHashMap<>();
+
+        for (int i = 0; i < ids.length; i++) {
+            indexes.put(ids[i], i);
+        }
+
+        return indexes;
+    }
+}
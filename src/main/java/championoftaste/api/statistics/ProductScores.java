@@ -0,0 +1,153 @@
+package championoftaste.api.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Суммы оценок продукта, из которых считается его итоговая оценка: суммы и количества экспертных оценок, оценок
+ * обычных потребителей и оценок каждого критерия. Суммы изменяются приращениями, поэтому итоговая оценка
+ * пересчитывается за O(количество критериев) без чтения самих оценок.
+ */
+public class ProductScores {
+
+    private long expertCount;       // количество экспертных оценок
+    private long expertSum;         // сумма экспертных оценок
+    private long consumerCount;     // количество оценок обычных потребителей
+    private long consumerSum;       // сумма оценок обычных потребителей
+
+    private final Map<Integer, long[]> parameters = new HashMap<>();  // количества и суммы оценок по id критериев
+
+    /**
+     * Заменяет суммы оценок продукта (экспертных и обычных потребителей).
+     */
+    public synchronized void setScores(long expertCount, long expertSum, long consumerCount, long consumerSum) {
+        this.expertCount = expertCount;
+        this.expertSum = expertSum;
+        this.consumerCount = consumerCount;
+        this.consumerSum = consumerSum;
+    }
+
+    /**
+     * Учитывает добавленную (sign = 1) или удалённую (sign = -1) оценку продукта.
+     *
+     * @param score    значение оценки
+     * @param isExpert является ли оценка экспертной
+     * @param sign     1 - оценка добавлена, -1 - удалена
+     */
+    public synchronized void addScore(int score, boolean isExpert, int sign) {
+        if (isExpert) {
+            expertCount += sign;
+            expertSum += sign * score;
+        } else {
+            consumerCount += sign;
+            consumerSum += sign * score;
+        }
+    }
+
+    /**
+     * Изменяет количество и сумму оценок критерия на указанные величины.
+     *
+     * @param parameterId id критерия
+     * @param countDelta  изменение количества оценок
+     * @param sumDelta    изменение суммы оценок
+     */
+    public synchronized void addParameterScores(int parameterId, long countDelta, long sumDelta) {
+        long[] cell = parameters.computeIfAbsent(parameterId, id -> new long[2]);
+        cell[0] += countDelta;
+        cell[1] += sumDelta;
+
+        if (cell[0] <= 0) {
+            parameters.remove(parameterId);
+        }
+    }
+
+    /**
+     * Исключает оценки удалённого критерия.
+     *
+     * @param parameterId id критерия
+     */
+    public synchronized void removeParameter(int parameterId) {
+        parameters.remove(parameterId);
+    }
+
+    /**
+     * Считает итоговую оценку продукта: взвешенное среднее среднего экспертных оценок, среднего оценок обычных
+     * потребителей и взвешенного (весами критериев) среднего средних оценок критериев. Составляющие без оценок
+     * (и критерии без оценок или с нулевым весом) не учитываются.
+     *
+     * @param parameterWeights веса критериев по их id (критерии, которых нет, не учитываются)
+     * @param expertWeight     вес среднего экспертных оценок
+     * @param consumerWeight   вес среднего оценок обычных потребителей
+     * @param parameterWeight  вес взвешенного среднего оценок критериев
+     * @return итоговая оценка продукта и её составляющие
+     */
+    public synchronized Result calculate(Map<Integer, Double> parameterWeights,
+                                         double expertWeight,
+                                         double consumerWeight,
+                                         double parameterWeight) {
+        double weightedSum = 0.0;
+        double weights = 0.0;
+
+        for (Map.Entry<Integer, long[]> entry : parameters.entrySet()) {
+            double weight = parameterWeights.getOrDefault(entry.getKey(), 0.0);
+
+            if (weight > 0) {
+                weightedSum += weight * entry.getValue()[1] / entry.getValue()[0];
+                weights += weight;
+            }
+        }
+
+        Double expertAverage = average(expertSum, expertCount);
+        Double consumerAverage = average(consumerSum, consumerCount);
+        Double parameterAverage = weights > 0 ? weightedSum / weights : null;
+
+        double compositeSum = 0.0;
+        double compositeWeights = 0.0;
+
+        if (expertAverage != null) {
+            compositeSum += expertWeight * expertAverage;
+            compositeWeights += expertWeight;
+        }
+
+        if (consumerAverage != null) {
+            compositeSum += consumerWeight * consumerAverage;
+            compositeWeights += consumerWeight;
+        }
+
+        if (parameterAverage != null) {
+            compositeSum += parameterWeight * parameterAverage;
+            compositeWeights += parameterWeight;
+        }
+
+        return new Result(
+                expertCount,
+                expertAverage,
+                consumerCount,
+                consumerAverage,
+                parameterAverage,
+                compositeWeights > 0 ? compositeSum / compositeWeights : 0.0
+        );
+    }
+
+    private static Double average(long sum, long count) {
+        return count > 0 ? (double) sum / count : null;
+    }
+
+    /**
+     * Итоговая оценка продукта и её составляющие (null - у продукта нет оценок этого вида).
+     */
+    @Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+    @AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+    public static class Result {
+
+        private final long expertVotesCount;    // количество экспертных оценок
+        private final Double expertAverage;     // среднее экспертных оценок
+        private final long consumerVotesCount;  // количество оценок обычных потребителей
+        private final Double consumerAverage;   // среднее оценок обычных потребителей
+        private final Double parameterAverage;  // взвешенное среднее оценок критериев
+        private final double composite;         // итоговая оценка
+    }
+}
@@ -0,0 +1,300 @@
+package championoftaste.api.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Рейтинг продуктов номинации: декартово дерево (treap) с размерами поддеревьев (дерево порядковых статистик).
+ * Продукты упорядочены по убыванию среднего значения оценок, затем по убыванию количества оценок, затем по id.
+ * Изменение оценок продукта, место продукта и выборка k продуктов начиная с заданной позиции выполняются
+ * за O(log n) (выборка - за O(log n + k)). Средние сравниваются перекрёстным умножением сумм и количеств,
+ * поэтому равные средние всегда равны (без ошибок округления).
+ */
+public class RankingTree {
+
+    private final Map<Integer, Node> nodes = new HashMap<>();  // узлы по id продуктов
+    private Node root;
+
+    /**
+     * Возвращает количество продуктов в рейтинге.
+     *
+     * @return количество продуктов
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Добавляет продукт в рейтинг или заменяет его оценки.
+     *
+     * @param productId id продукта
+     * @param count     количество оценок
+     * @param sum       сумма оценок
+     */
+    public synchronized void put(int productId, long count, long sum) {
+        remove(productId);
+
+        Node node = new Node(productId, count, sum, ThreadLocalRandom.current().nextInt());
+        Node[] parts = split(root, node);
+
+        root = merge(merge(parts[0], node), parts[1]);
+        nodes.put(productId, node);
+    }
+
+    /**
+     * Изменяет оценки продукта на указанные величины (продукт добавляется, если его ещё нет в рейтинге).
+     *
+     * @param productId  id продукта
+     * @param countDelta изменение количества оценок
+     * @param sumDelta   изменение суммы оценок
+     */
+    public synchronized void add(int productId, long countDelta, long sumDelta) {
+        Node node = nodes.get(productId);
+
+        put(
+                productId,
+                Math.max(0, (node != null ? node.count : 0) + countDelta),
+                (node != null ? node.sum : 0) + sumDelta
+        );
+    }
+
+    /**
+     * Удаляет продукт из рейтинга.
+     *
+     * @param productId id продукта
+     * @return true - продукт удалён, иначе false (продукта не было в рейтинге)
+     */
+    public synchronized boolean remove(int productId) {
+        Node node = nodes.remove(productId);
+
+        if (node == null) {
+            return false;
+        }
+
+        root = delete(root, node);
+        return true;
+    }
+
+    /**
+     * Возвращает строку рейтинга продукта.
+     *
+     * @param productId id продукта
+     * @return строка рейтинга или null, если продукта нет в рейтинге
+     */
+    public synchronized Entry get(int productId) {
+        Node node = nodes.get(productId);
+
+        return node != null ? toEntry(node, position(node)) : null;
+    }
+
+    /**
+     * Возвращает строки рейтинга начиная с указанной позиции (первые k строк - при from = 0).
+     *
+     * @param from позиция первой строки (с нуля)
+     * @param size максимальное количество строк
+     * @return строки рейтинга по порядку
+     */
+    public synchronized List<Entry> range(int from, int size) {
+        List<Node> selected = new ArrayList<>();
+        from = Math.max(0, from);
+        collect(root, from, from + Math.max(0, size), 0, selected);
+
+        List<Entry> entries = new ArrayList<>(selected.size());
+
+        for (int i = 0; i < selected.size(); i++) {
+            Node node = selected.get(i);
+            int rank;
+
+            // Место первой строки считается по дереву, остальных - по предыдущей строке: при равном среднем место
+            // делится, иначе все продукты выше имеют строго большее среднее и место равно позиции + 1.
+            if (i == 0) {
+                rank = rank(node);
+            } else if (compareAverages(node, selected.get(i - 1)) == 0) {
+                rank = entries.get(i - 1).getRank();
+            } else {
+                rank = from + i + 1;
+            }
+
+            entries.add(new Entry(node.productId, from + i, rank, node.count, node.average()));
+        }
+
+        return entries;
+    }
+
+    private Entry toEntry(Node node, int position) {
+        return new Entry(node.productId, position, rank(node), node.count, node.average());
+    }
+
+    /**
+     * Возвращает место продукта: 1 + количество продуктов со строго большим средним (равные средние делят место).
+     */
+    private int rank(Node node) {
+        int above = 0;
+        Node current = root;
+
+        while (current != null) {
+            if (compareAverages(current, node) > 0) {
+                above += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+
+        return above + 1;
+    }
+
+    /**
+     * Возвращает позицию узла в рейтинге (с нуля).
+     */
+    private int position(Node node) {
+        int position = 0;
+        Node current = root;
+
+        while (current != node) {
+            if (compare(node, current) < 0) {
+                current = current.left;
+            } else {
+                position += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+
+        return position + size(node.left);
+    }
+
+    private void collect(Node node, int from, int to, int offset, List<Node> selected) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+
+        int position = offset + size(node.left);
+
+        collect(node.left, from, to, offset, selected);
+
+        if (position >= from && position < to) {
+            selected.add(node);
+        }
+
+        collect(node.right, from, to, position + 1, selected);
+    }
+
+    /**
+     * Делит дерево на продукты, стоящие в рейтинге раньше указанного узла, и все остальные.
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+
+        if (compare(node, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        } else {
+            Node[] parts = split(node.left, key);
+            node.left = parts[1];
+            update(node);
+            return new Node[]{parts[0], node};
+        }
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null || right == null) {
+            return left != null ? left : right;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private static Node delete(Node node, Node key) {
+        if (node == key) {
+            return merge(node.left, node.right);
+        }
+
+        if (compare(key, node) < 0) {
+            node.left = delete(node.left, key);
+        } else {
+            node.right = delete(node.right, key);
+        }
+
+        update(node);
+        return node;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static int compare(Node a, Node b) {
+        int result = compareAverages(b, a);
+
+        if (result == 0) {
+            result = Long.compare(b.count, a.count);
+        }
+
+        return result != 0 ? result : Integer.compare(a.productId, b.productId);
+    }
+
+    /**
+     * Сравнивает средние значения оценок (среднее продукта без оценок равно 0).
+     */
+    private static int compareAverages(Node a, Node b) {
+        return Long.compare(a.sum * Math.max(1, b.count), b.sum * Math.max(1, a.count));
+    }
+
+    private static final class Node {
+
+        private final int productId;    // id продукта
+        private final long count;       // количество оценок
+        private final long sum;         // сумма оценок
+        private final int priority;     // случайный приоритет, поддерживающий баланс дерева
+        private Node left;
+        private Node right;
+        private int size = 1;           // количество узлов в поддереве
+
+        private Node(int productId, long count, long sum, int priority) {
+            this.productId = productId;
+            this.count = count;
+            this.sum = sum;
+            this.priority = priority;
+        }
+
+        private double average() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+    }
+
+    /**
+     * Строка рейтинга.
+     */
+    @Getter             // создаёт дефолтные геттеры автоматически для каждого поля класса
+    @AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+    public static class Entry {
+
+        private final int productId;    // id продукта
+        private final int position;     // позиция в рейтинге (с нуля)
+        private final int rank;         // место (продукты с равным средним делят место)
+        private final long votesCount;  // количество оценок
+        private final double average;   // среднее значение оценок
+    }
+}
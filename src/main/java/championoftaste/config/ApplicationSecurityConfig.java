@@ -5,6 +5,8 @@ import championoftaste.jwt.JwtTokenVerifier;
 import championoftaste.jwt.JwtUsernameAndPasswordAuthenticationFilter;
 import championoftaste.api.service.UserService;
 
+import io.jsonwebtoken.JwtParser;
+
 import lombok.AllArgsConstructor;
 
 import org.springframework.context.annotation.Bean;
@@ -30,6 +32,7 @@ public class ApplicationSecurityConfig extends WebSecurityConfigurerAdapter {
     private final UserService userService;
     private final SecretKey secretKey;
     private final JwtConfig jwtConfig;
+    private final JwtParser jwtParser;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
@@ -40,7 +43,7 @@ public class ApplicationSecurityConfig extends WebSecurityConfigurerAdapter {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .addFilter(new JwtUsernameAndPasswordAuthenticationFilter(authenticationManager(), jwtConfig, secretKey))
-                .addFilterAfter(new JwtTokenVerifier(secretKey, jwtConfig), JwtUsernameAndPasswordAuthenticationFilter.class)
+                .addFilterAfter(new JwtTokenVerifier(jwtParser, jwtConfig), JwtUsernameAndPasswordAuthenticationFilter.class)
                 .authorizeRequests()
                 .antMatchers("/", "index", "/css/*", "/js/*", "/registration").permitAll()
                 .anyRequest()
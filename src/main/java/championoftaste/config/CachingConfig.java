@@ -0,0 +1,60 @@
+package championoftaste.config;
+
+import com.google.common.cache.CacheBuilder;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Конфиг кеширования справочников конкурса (группы номинаций, номинации, критерии, недостатки, производители),
+ * которые во время проведения конкурса практически не изменяются.
+ * Кеширование выполняется снаружи транзакций (order выше, чем у транзакций с порядком по умолчанию),
+ * поэтому кеши очищаются (EvictsCatalog) только после фиксации изменений: иначе параллельный запрос мог бы
+ * снова закешировать прежние данные.
+ */
+@Getter         // создаёт дефолтные геттеры автоматически для каждого поля
+@Setter         // создаёт дефолтные сеттеры автоматически для каждого поля
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@ConfigurationProperties(prefix = "application.cache.catalog")
+public class CachingConfig {
+
+    public static final String NOMINATION_GROUPS = "nominationGroups";
+    public static final String NOMINATIONS = "nominations";
+    public static final String PARAMETERS = "parameters";
+    public static final String DISADVANTAGES = "disadvantages";
+    public static final String PRODUCERS = "producers";
+    public static final String CATALOG = "catalog"; // снимок всего справочника (CatalogService)
+
+    private long maximumSize = 1000;    // максимальное количество записей (страниц) в каждом кеше
+    private long ttlSeconds = 300;      // время жизни записи с момента её добавления в кеш (в секундах)
+
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+
+        cacheManager.setCaches(Arrays
+                .stream(new String[]{NOMINATION_GROUPS, NOMINATIONS, PARAMETERS, DISADVANTAGES, PRODUCERS, CATALOG})
+                .map(name -> new GuavaCache(name, CacheBuilder
+                        .newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                        .recordStats()
+                        .build()))
+                .collect(Collectors.toList()));
+
+        return cacheManager;
+    }
+}
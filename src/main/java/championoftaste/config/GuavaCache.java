@@ -0,0 +1,66 @@
+package championoftaste.config;
+
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Реализация кеша Spring (Cache) поверх кеша Guava с ограничением размера и временем жизни записей.
+ */
+public class GuavaCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> cache;
+
+    public GuavaCache(String name, Cache<Object, Object> cache) {
+        super(true);
+
+        this.name = name;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<Object, Object> getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        try {
+            // Guava гарантирует, что значение для одного ключа вычисляется только одним потоком.
+            return (T) fromStoreValue(cache.get(key, () -> toStoreValue(valueLoader.call())));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
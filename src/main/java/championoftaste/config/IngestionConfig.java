@@ -0,0 +1,24 @@
+package championoftaste.config;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки асинхронной записи оценок через журнал (см. ScoreIngestionService).
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля
+@Setter             // создаёт дефолтные сеттеры автоматически для каждого поля
+@NoArgsConstructor  // создаёт конструктор без параметров
+@Component
+@ConfigurationProperties(prefix = "application.ingestion")
+public class IngestionConfig {
+
+    private String journalPath = "journal/scores.log";  // путь к файлу журнала
+    private int batchSize = 500;                        // максимальное количество отправок в одной пачке записи
+    private long compactThresholdBytes = 64L << 20;     // размер журнала, после которого он сжимается (в байтах)
+    private int maxQueueSize = 100_000;                 // максимальное количество незаписанных отправок
+}
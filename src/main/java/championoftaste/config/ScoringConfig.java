@@ -0,0 +1,24 @@
+package championoftaste.config;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Веса составляющих итоговой оценки продукта (см. CompositeScoringService). Веса относительные: итоговая оценка -
+ * взвешенное среднее составляющих, по которым у продукта есть оценки.
+ */
+@Getter             // создаёт дефолтные геттеры автоматически для каждого поля
+@Setter             // создаёт дефолтные сеттеры автоматически для каждого поля
+@NoArgsConstructor  // создаёт конструктор без параметров
+@Component
+@ConfigurationProperties(prefix = "application.scoring")
+public class ScoringConfig {
+
+    private double expertWeight = 1.0;      // вес среднего экспертных оценок
+    private double consumerWeight = 1.0;    // вес среднего оценок обычных потребителей
+    private double parameterWeight = 1.0;   // вес взвешенного среднего оценок критериев
+}
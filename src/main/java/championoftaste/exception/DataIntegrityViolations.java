@@ -0,0 +1,28 @@
+package championoftaste.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Вспомогательные методы для разбора ошибок целостности данных, возвращаемых базой данных.
+ */
+public class DataIntegrityViolations {
+
+    /**
+     * Проверяет, вызвана ли ошибка нарушением указанного ограничения базы данных.
+     *
+     * @param e              ошибка целостности данных
+     * @param constraintName название ограничения
+     * @return true - ошибка вызвана нарушением указанного ограничения, иначе false
+     */
+    public static boolean isViolated(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return constraintName.equalsIgnoreCase(((ConstraintViolationException) cause).getConstraintName());
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,15 @@
+package championoftaste.jwt;
+
+/**
+ * Названия полей (claims) токена и текущая версия его формата.
+ */
+public class JwtClaims {
+
+    public static final String AUTHORITIES = "authorities";    // полномочия пользователя
+    public static final String USER_ID = "userId";              // id пользователя
+    public static final String ROLE = "role";                   // роль пользователя
+    public static final String VERSION = "version";             // версия формата токена
+
+    // Версия 2: в токене есть id и роль пользователя (в токенах без версии только имя пользователя и полномочия).
+    public static final int CURRENT_VERSION = 2;
+}
@@ -1,5 +1,7 @@
 package championoftaste.jwt;
 
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 import lombok.AllArgsConstructor;
@@ -19,4 +21,12 @@ public class JwtSecretKey {
     public SecretKey secretKey() {
         return Keys.hmacShaKeyFor(jwtConfig.getSecretKey().getBytes());
     }
+
+    @Bean
+    public JwtParser jwtParser(SecretKey secretKey) {
+        // Парсер потокобезопасен, поэтому создаётся один раз, а не при каждом запросе.
+        return Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
+    }
 }
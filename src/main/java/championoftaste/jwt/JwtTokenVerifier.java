@@ -1,40 +1,58 @@
 package championoftaste.jwt;
 
+import championoftaste.api.UserIdentity;
+import championoftaste.api.UserRole;
+
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtParser;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Фильтр, проверяющий валидность токена, отправленного пользователем при запросе.
  */
-@AllArgsConstructor // создает конструктор с 1 параметром для каждого поля класса
 public class JwtTokenVerifier extends OncePerRequestFilter {
 
-    private final SecretKey secretKey;
+    private final JwtParser jwtParser;
     private final JwtConfig jwtConfig;
 
+    // Недавно проверенные токены (клиент отправляет один и тот же токен с каждым запросом,
+    // поэтому подпись и полномочия не надо проверять и разбирать заново).
+    private final Cache<String, VerifiedToken> verifiedTokens = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
+    public JwtTokenVerifier(JwtParser jwtParser, JwtConfig jwtConfig) {
+        this.jwtParser = jwtParser;
+        this.jwtConfig = jwtConfig;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -53,25 +71,13 @@ public class JwtTokenVerifier extends OncePerRequestFilter {
         String token = authorizationHeader.replace(jwtConfig.getTokenPrefix(), "");
 
         try {
-            Jws<Claims> claimsJws = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build().parseClaimsJws(token);
-
-            Claims body = claimsJws.getBody();
-
-            String username = body.getSubject();
-
-            var authorities = (List<Map<String, String>>) body.get("authorities");
-
-            Set<SimpleGrantedAuthority> simpleGrantedAuthorities = authorities.stream()
-                    .map(m -> new SimpleGrantedAuthority(m.get("authority")))
-                    .collect(Collectors.toSet());
+            VerifiedToken verifiedToken = verify(token);
 
             SecurityContextHolder.getContext().setAuthentication(
                     new UsernamePasswordAuthenticationToken(
-                            username,
+                            verifiedToken.getPrincipal(),
                             null,
-                            simpleGrantedAuthorities
+                            verifiedToken.getAuthorities()
                     )
             );
         } catch (JwtException e) {
@@ -80,4 +86,62 @@ public class JwtTokenVerifier extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Проверяет токен (или берёт результат недавней проверки из кэша, если срок действия токена ещё не истёк).
+     *
+     * @param token токен
+     * @return данные пользователя из токена
+     * @throws JwtException выбрасывается в случае, если токен невалиден
+     */
+    private VerifiedToken verify(String token) throws JwtException {
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(token);
+
+        if (verifiedToken != null) {
+            if (verifiedToken.getExpiration() == null || verifiedToken.getExpiration().after(new Date())) {
+                return verifiedToken;
+            }
+
+            // Срок действия токена истёк: проверяем заново, чтобы парсер выбросил соответствующую ошибку.
+            verifiedTokens.invalidate(token);
+        }
+
+        Jws<Claims> claimsJws = jwtParser.parseClaimsJws(token);
+
+        Claims body = claimsJws.getBody();
+
+        String username = body.getSubject();
+
+        var authorities = (List<Map<String, String>>) body.get(JwtClaims.AUTHORITIES);
+
+        Set<SimpleGrantedAuthority> simpleGrantedAuthorities = authorities.stream()
+                .map(m -> new SimpleGrantedAuthority(m.get("authority")))
+                .collect(Collectors.toSet());
+
+        // В токенах актуальной версии есть id и роль пользователя, в старых - только имя пользователя.
+        Object principal = body.get(JwtClaims.VERSION) != null
+                ? new UserIdentity(
+                        body.get(JwtClaims.USER_ID, Integer.class),
+                        username,
+                        UserRole.valueOf(body.get(JwtClaims.ROLE, String.class))
+                )
+                : username;
+
+        verifiedToken = new VerifiedToken(principal, simpleGrantedAuthorities, body.getExpiration());
+        verifiedTokens.put(token, verifiedToken);
+
+        return verifiedToken;
+    }
+
+    /**
+     * Результат проверки токена.
+     */
+    @Getter             // создаёт дефолтные геттеры автоматически для каждого поля
+    @AllArgsConstructor // создает конструктор с 1 параметром для каждого поля класса
+    private static class VerifiedToken {
+
+        private final Object principal;                         // пользователь (UserIdentity или имя пользователя)
+        private final Set<SimpleGrantedAuthority> authorities;  // полномочия пользователя
+        private final Date expiration;                          // время истечения срока действия токена
+    }
 }
@@ -1,5 +1,7 @@
 package championoftaste.jwt;
 
+import championoftaste.api.model.User;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.jsonwebtoken.Jwts;
@@ -75,10 +77,15 @@ public class JwtUsernameAndPasswordAuthenticationFilter extends UsernamePassword
                                             HttpServletResponse response,
                                             FilterChain chain,
                                             Authentication authResult) {
-        // Создаём токен.
+        User user = (User) authResult.getPrincipal();
+
+        // Создаём токен (id и роль пользователя позволяют обрабатывать его запросы без поиска в базе данных).
         String token = Jwts.builder()
                 .setSubject(authResult.getName())
-                .claim("authorities", authResult.getAuthorities())
+                .claim(JwtClaims.AUTHORITIES, authResult.getAuthorities())
+                .claim(JwtClaims.USER_ID, user.getId())
+                .claim(JwtClaims.ROLE, user.getRole().name())
+                .claim(JwtClaims.VERSION, JwtClaims.CURRENT_VERSION)
                 .setIssuedAt(new Date())
                 .setExpiration(java.sql.Date.valueOf(LocalDate.now().plusDays(jwtConfig.getTokenExpirationAfterDays())))
                 .signWith(secretKey)
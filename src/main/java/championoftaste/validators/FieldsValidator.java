@@ -4,7 +4,9 @@ import lombok.NoArgsConstructor;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
+import javax.validation.Validator;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -15,6 +17,9 @@ import java.util.Set;
 @NoArgsConstructor
 public class FieldsValidator<T> {
 
+    // Validator потокобезопасен и кэширует метаданные ограничений, поэтому создаётся один раз на всё приложение.
+    private static final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     /**
      * Проверяет поля объекта на корректность (валидность), в соответствии с аннотациями указанными над ними.
      *
@@ -22,6 +27,17 @@ public class FieldsValidator<T> {
      * @return Set ошибок, которые были выявлены в резальтате проверки
      */
     public Set<ConstraintViolation<T>> validate(T entity) {
-        return Validation.buildDefaultValidatorFactory().getValidator().validate(entity);
+        return validator.validate(entity);
+    }
+
+    /**
+     * Заранее загружает метаданные ограничений указанных классов, чтобы первая проверка не тратила на это время.
+     *
+     * @param classes классы, метаданные которых надо загрузить
+     */
+    public static void warmUp(Collection<Class<?>> classes) {
+        for (Class<?> clazz : classes) {
+            validator.getConstraintsForClass(clazz);
+        }
     }
 }
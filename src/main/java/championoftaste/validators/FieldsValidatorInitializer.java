@@ -0,0 +1,35 @@
+package championoftaste.validators;
+
+import championoftaste.api.model.User;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.Type;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Компонент, загружающий метаданные ограничений всех сущностей (api.model) при запуске приложения.
+ */
+@Component
+@AllArgsConstructor // создаёт конструктор с одним параметром для каждого поля в классе
+public class FieldsValidatorInitializer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<Class<?>> entities = entityManagerFactory.getMetamodel().getEntities().stream()
+                .map(Type::getJavaType)
+                .filter(clazz -> clazz.getPackage().equals(User.class.getPackage()))
+                .collect(Collectors.toList());
+
+        FieldsValidator.warmUp(entities);
+    }
+}
@@ -0,0 +1,7 @@
+-- Шаг последовательностей должен совпадать с allocationSize в сущностях Score, ParameterScore и Comment,
+-- иначе Hibernate не запустится (hibernate.id.sequence.increment_size_mismatch_strategy=exception).
+-- Скрипт выполняется до инициализации Hibernate; в новой базе данных последовательностей ещё нет,
+-- и Hibernate сам создаст их с нужным шагом.
+ALTER SEQUENCE IF EXISTS scores_sequence INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS parameters_scores_sequence INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS comments_sequence INCREMENT BY 50;
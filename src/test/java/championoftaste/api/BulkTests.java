@@ -0,0 +1,77 @@
+package championoftaste.api;
+
+import championoftaste.api.response.BulkItemResponse;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkTests {
+
+    @Test
+    void processesChunksWithOffsetsAndRetriesConflictingChunk() {
+        List<Integer> items = IntStream.range(0, Bulk.CHUNK_SIZE * 2 + 1).boxed().collect(Collectors.toList());
+        AtomicInteger calls = new AtomicInteger();
+
+        List<BulkItemResponse> results = Bulk.process(items, "unique_key", (chunk, offset) -> {
+            // Вторая часть в первый раз конфликтует с одновременной записью.
+            if (calls.incrementAndGet() == 2) {
+                throw violation("unique_key");
+            }
+
+            List<BulkItemResponse> chunkResults = new ArrayList<>();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.add(BulkItemResponse.created(offset + i, chunk.get(i)));
+            }
+
+            return chunkResults;
+        });
+
+        assertEquals(4, calls.get());
+        assertEquals(items.size(), results.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(items.get(i), results.get(i).getId());
+        }
+    }
+
+    @Test
+    void marksChunkInvalidOnOtherViolations() {
+        List<Integer> items = IntStream.range(0, 3).boxed().collect(Collectors.toList());
+        AtomicInteger calls = new AtomicInteger();
+
+        List<BulkItemResponse> results = Bulk.process(items, "unique_key", (chunk, offset) -> {
+            calls.incrementAndGet();
+            throw violation("products_fkey");
+        });
+
+        // Нарушение другого ограничения не исправится повтором, поэтому часть не обрабатывается заново.
+        assertEquals(1, calls.get());
+        assertEquals(items.size(), results.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(BulkItemStatus.INVALID, results.get(i).getStatus());
+        }
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName) {
+        return new DataIntegrityViolationException(
+                "violation",
+                new ConstraintViolationException("violation", new SQLException(), constraintName)
+        );
+    }
+}
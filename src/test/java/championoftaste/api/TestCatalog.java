@@ -0,0 +1,110 @@
+package championoftaste.api;
+
+import championoftaste.api.model.*;
+import championoftaste.api.repository.*;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+/**
+ * Создание тестовых записей справочника в базе данных. Названия, которые должны быть уникальными,
+ * дополняются суффиксом, поэтому записи не конфликтуют с уже существующими.
+ * Подключается в тест через {@code @Import(TestCatalog.class)}.
+ */
+@TestComponent
+public class TestCatalog {
+
+    @Autowired
+    private NominationGroupRepository nominationGroupRepository;
+
+    @Autowired
+    private NominationRepository nominationRepository;
+
+    @Autowired
+    private ProducerRepository producerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ParameterRepository parameterRepository;
+
+    @Autowired
+    private DisadvantageRepository disadvantageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public NominationGroup group(String name) {
+        NominationGroup group = new NominationGroup();
+        group.setName(unique(name));
+
+        return nominationGroupRepository.save(group);
+    }
+
+    public Nomination nomination(String name, NominationGroup group) {
+        Nomination nomination = new Nomination();
+        nomination.setName(unique(name));
+        nomination.setNominationGroup(group);
+
+        return nominationRepository.save(nomination);
+    }
+
+    public Producer producer(String name) {
+        Producer producer = new Producer();
+        producer.setName(unique(name));
+
+        return producerRepository.save(producer);
+    }
+
+    public Product product(String name, Producer producer, Nomination nomination) {
+        Product product = new Product();
+        product.setName(name);
+        product.setProducer(producer);
+        product.setNomination(nomination);
+
+        return productRepository.save(product);
+    }
+
+    public Parameter parameter(String name, Nomination nomination) {
+        Parameter parameter = new Parameter();
+        parameter.setName(name);
+        parameter.setNomination(nomination);
+
+        return parameterRepository.save(parameter);
+    }
+
+    public Disadvantage disadvantage(String name, Nomination nomination) {
+        Disadvantage disadvantage = new Disadvantage();
+        disadvantage.setName(name);
+        disadvantage.setNomination(nomination);
+
+        return disadvantageRepository.save(disadvantage);
+    }
+
+    public User expert() {
+        String suffix = suffix();
+
+        return userRepository.save(new User(
+                UserRole.ROLE_EXPERT,
+                "Эксперт",
+                "Тестовый",
+                null,
+                (short) 0,
+                (short) 30,
+                "+7" + suffix.substring(suffix.length() - 10),
+                suffix + "@example.com",
+                null,
+                "password",
+                null
+        ));
+    }
+
+    private static String unique(String name) {
+        return name + " " + suffix();
+    }
+
+    private static String suffix() {
+        return String.valueOf(System.nanoTime());
+    }
+}
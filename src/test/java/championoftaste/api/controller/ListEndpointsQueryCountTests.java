@@ -0,0 +1,126 @@
+package championoftaste.api.controller;
+
+import championoftaste.api.TestCatalog;
+import championoftaste.api.model.*;
+import championoftaste.api.repository.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "application.cache.catalog.maximumSize=0"   // считаются запросы к базе данных, а не попадания в кеш
+})
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser(roles = "ADMIN")
+@Import(TestCatalog.class)
+class ListEndpointsQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestCatalog catalog;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private ParameterScoreRepository parameterScoreRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Nomination nomination;
+    private Producer producer;
+    private Product product;
+    private Parameter parameter;
+    private User user;
+
+    @BeforeEach
+    void createCatalog() {
+        // Несколько групп, номинаций и производителей, чтобы ленивые связи потребовали бы отдельных запросов.
+        for (int i = 0; i < 3; i++) {
+            nomination = catalog.nomination("Номинация " + i, catalog.group("Группа " + i));
+            producer = catalog.producer("Производитель " + i);
+            product = catalog.product("Продукт " + i, producer, nomination);
+            parameter = catalog.parameter("Критерий " + i, nomination);
+            catalog.disadvantage("Недостаток " + i, nomination);
+        }
+
+        user = catalog.expert();
+
+        scoreRepository.save(new Score((short) 5, product, user, true));
+        parameterScoreRepository.save(new ParameterScore((short) 5, product, parameter, user));
+        commentRepository.save(new Comment("Комментарий", product, user));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/groups",
+            "/groups/{groupId}/nominations",
+            "/nominations",
+            "/nominations/{nominationId}/parameters",
+            "/nominations/{nominationId}/disadvantages",
+            "/producers",
+            "/producers/{producerId}/products",
+            "/products",
+            "/products/{productId}/scores",
+            "/products/{productId}/parameter-scores",
+            "/products/{productId}/comments",
+            "/parameters",
+            "/parameters/{parameterId}/parameter-scores",
+            "/disadvantages",
+            "/users",
+            "/users/{userId}/scores",
+            "/users/{userId}/parameter-scores",
+            "/users/{userId}/comments",
+            "/scores",
+            "/parameter-scores",
+            "/comments"
+    })
+    void listEndpointRunsOneQuery(String template) throws Exception {
+        String url = template
+                .replace("{groupId}", nomination.getNominationGroup().getId().toString())
+                .replace("{nominationId}", nomination.getId().toString())
+                .replace("{producerId}", producer.getId().toString())
+                .replace("{productId}", product.getId().toString())
+                .replace("{parameterId}", parameter.getId().toString())
+                .replace("{userId}", user.getId().toString());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Количество SQL-запросов для " + url);
+    }
+}
@@ -0,0 +1,108 @@
+package championoftaste.api.controller;
+
+import championoftaste.api.TestCatalog;
+import championoftaste.api.model.Nomination;
+import championoftaste.api.model.NominationGroup;
+import championoftaste.api.model.Producer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser(roles = "CONSUMER")
+@Import(TestCatalog.class)
+class NominationGroupTreeQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestCatalog catalog;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private NominationGroup group;
+
+    @BeforeEach
+    void createCatalog() {
+        // 2 группы x 3 номинации x 4 продукта, у каждого продукта свой производитель: без плана загрузки
+        // ленивые связи потребовали бы десятков отдельных запросов.
+        for (int i = 0; i < 2; i++) {
+            group = catalog.group("Группа " + i);
+
+            for (int j = 0; j < 3; j++) {
+                Nomination nomination = catalog.nomination("Номинация " + i + "." + j, group);
+
+                for (int k = 0; k < 4; k++) {
+                    Producer producer = catalog.producer("Производитель " + i + "." + j + "." + k);
+                    catalog.product("Продукт " + k, producer, nomination);
+                }
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void groupTreeLoadsInBoundedNumberOfQueries() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/groups/" + group.getId() + "/tree"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nominations.length()").value(3))
+                .andExpect(jsonPath("$.nominations[0].products.length()").value(4))
+                .andExpect(jsonPath("$.nominations[0].products[0].producer.name").isNotEmpty());
+
+        assertTrue(
+                statistics.getPrepareStatementCount() <= 3,
+                "Слишком много SQL-запросов: " + statistics.getPrepareStatementCount()
+        );
+    }
+
+    @Test
+    void groupTreesPageLoadsInBoundedNumberOfQueries() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/groups/tree").param("afterId", String.valueOf(group.getId() - 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].nominations[2].products.length()").value(4));
+
+        assertTrue(
+                statistics.getPrepareStatementCount() <= 3,
+                "Слишком много SQL-запросов: " + statistics.getPrepareStatementCount()
+        );
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        return statistics;
+    }
+}
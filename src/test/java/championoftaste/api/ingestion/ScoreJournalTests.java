@@ -0,0 +1,125 @@
+package championoftaste.api.ingestion;
+
+import championoftaste.api.SubmissionStatus;
+import championoftaste.config.IngestionConfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreJournalTests {
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+    private ScoreJournal scoreJournal;
+
+    @BeforeEach
+    void open() throws IOException {
+        path = directory.resolve("scores.log");
+
+        IngestionConfig ingestionConfig = new IngestionConfig();
+        ingestionConfig.setJournalPath(path.toString());
+
+        scoreJournal = new ScoreJournal(new ObjectMapper(), ingestionConfig);
+        scoreJournal.open();
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        scoreJournal.close();
+    }
+
+    @Test
+    void readsAppendedSubmissionsAndDropsTornLastLine() throws IOException {
+        Submission submission = new Submission(
+                "1",
+                Submission.Type.SCORES,
+                7,
+                true,
+                Collections.singletonList(new Submission.Item(3, null, (short) 5)),
+                SubmissionStatus.PENDING,
+                null
+        );
+
+        scoreJournal.append(submission);
+        scoreJournal.appendAll(Collections.singletonList(submission.complete(SubmissionStatus.ACCEPTED, null)));
+
+        // Запись, дописанная не до конца при аварийной остановке.
+        Files.write(path, "{\"id\":\"2\",\"ty".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        List<Submission> submissions = scoreJournal.readAll();
+
+        assertEquals(2, submissions.size());
+        assertEquals(SubmissionStatus.PENDING, submissions.get(0).getStatus());
+        assertTrue(submissions.get(0).isExpert());
+        assertEquals((short) 5, submissions.get(0).getItems().get(0).getScore());
+        assertEquals(SubmissionStatus.ACCEPTED, submissions.get(1).getStatus());
+        assertNull(submissions.get(1).getItems());
+
+        // После перезапуска недописанная запись отбрасывается и не портит следующие.
+        scoreJournal.close();
+        scoreJournal.open();
+        scoreJournal.append(submission);
+
+        assertEquals(3, scoreJournal.readAll().size());
+
+        scoreJournal.truncate();
+
+        assertTrue(scoreJournal.readAll().isEmpty());
+    }
+
+    @Test
+    void rewriteKeepsOnlyGivenSubmissions() {
+        List<Submission> pending = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            Submission submission = new Submission(
+                    String.valueOf(i),
+                    Submission.Type.SCORES,
+                    7,
+                    false,
+                    Collections.singletonList(new Submission.Item(i, null, (short) 5)),
+                    SubmissionStatus.PENDING,
+                    null
+            );
+
+            scoreJournal.append(submission);
+
+            if (i % 10 == 0) {
+                pending.add(submission);
+            } else {
+                scoreJournal.append(submission.complete(SubmissionStatus.ACCEPTED, null));
+            }
+        }
+
+        long size = scoreJournal.size();
+        scoreJournal.rewrite(pending);
+
+        assertTrue(scoreJournal.size() < size / 10);
+        assertEquals(10, scoreJournal.readAll().size());
+
+        // Журнал продолжает дописываться после замены.
+        scoreJournal.append(pending.get(0).complete(SubmissionStatus.ACCEPTED, null));
+
+        assertEquals(11, scoreJournal.readAll().size());
+        assertEquals("0", scoreJournal.readAll().get(10).getId());
+    }
+}
@@ -0,0 +1,63 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.Producer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class CatalogCacheTests {
+
+    @Autowired
+    private ProducerService producerService;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearCaches() {
+        // Транзакция теста откатывается, а закешированная страница с созданным производителем осталась бы в кеше.
+        cacheService.clear();
+    }
+
+    @Test
+    void repeatedReadIsServedFromCacheUntilCatalogChanges() {
+        cacheService.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        producerService.readAllResponses(null, 100);
+        producerService.readAllResponses(null, 100);
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Повторное чтение должно обслуживаться кешем");
+
+        Producer producer = new Producer();
+        producer.setName("Производитель " + System.nanoTime());
+        producerService.create(producer);
+        entityManager.flush();
+
+        statistics.clear();
+        producerService.readAllResponses(null, 100);
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Изменение справочника должно очищать кеш");
+    }
+}
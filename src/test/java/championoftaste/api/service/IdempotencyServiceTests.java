@@ -0,0 +1,65 @@
+package championoftaste.api.service;
+
+import championoftaste.api.UserIdentity;
+import championoftaste.api.UserRole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTests {
+
+    @Test
+    void repeatedRequestReturnsStoredResponseWithoutExecuting() {
+        UserService userService = mock(UserService.class);
+        when(userService.loadAuthorizedIdentity()).thenReturn(new UserIdentity(1, "user", UserRole.ROLE_CONSUMER));
+
+        IdempotencyService idempotencyService = new IdempotencyService(userService, new ObjectMapper());
+        AtomicInteger executions = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            ResponseEntity<?> response = idempotencyService.execute("/scores", "key", "body", () ->
+                    new ResponseEntity<>("Создано " + executions.incrementAndGet(), HttpStatus.CREATED)
+            );
+
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+            assertEquals("Создано 1", response.getBody());
+            assertEquals(
+                    i == 0 ? null : "true",
+                    response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)
+            );
+        }
+
+        // Тот же ключ в другой области запроса и запрос без ключа выполняются заново.
+        idempotencyService.execute("/comments", "key", "body", () -> {
+            executions.incrementAndGet();
+            return new ResponseEntity<>(HttpStatus.CREATED);
+        });
+        ResponseEntity<?> response = idempotencyService.execute("/scores", null, "body", () -> {
+            executions.incrementAndGet();
+            return new ResponseEntity<>(HttpStatus.CREATED);
+        });
+
+        assertEquals(3, executions.get());
+        assertNull(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+
+        // Тот же ключ с другим телом запроса отклоняется без выполнения.
+        response = idempotencyService.execute("/scores", "key", "other body", () -> {
+            executions.incrementAndGet();
+            return new ResponseEntity<>(HttpStatus.CREATED);
+        });
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(3, executions.get());
+    }
+}
@@ -0,0 +1,67 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.Product;
+import championoftaste.api.model.Score;
+import championoftaste.api.repository.ProductRepository;
+import championoftaste.api.response.ProductResult;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LeaderboardServiceTests {
+
+    @Test
+    void pushesOnlyChangedNominationsWithSubscribers() throws Exception {
+        ScoreStatisticsService scoreStatisticsService = mock(ScoreStatisticsService.class);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        LeaderboardService leaderboardService = new LeaderboardService(scoreStatisticsService, productRepository);
+
+        when(scoreStatisticsService.readResults(1)).thenReturn(
+                Collections.singletonList(new ProductResult(10, "Продукт", 1, 5, 0, 0)),
+                Collections.singletonList(new ProductResult(10, "Продукт", 2, 9, 0, 0))
+        );
+        when(productRepository.findNominationIdsByIdIn(any())).thenReturn(Arrays.asList(1, 2));
+
+        leaderboardService.subscribe(1);
+
+        // Без изменений оценок рассылка не обращается к базе данных.
+        leaderboardService.push();
+        verify(productRepository, never()).findNominationIdsByIdIn(any());
+
+        Product product = new Product();
+        product.setId(10);
+        leaderboardService.markChanged(Collections.singletonList(new Score((short) 4, product, null, false)));
+        leaderboardService.push();
+
+        // Результаты перечитываются только для номинации с подпиской, изменения сливаются в одну рассылку.
+        verify(productRepository, times(1)).findNominationIdsByIdIn(any());
+        verify(scoreStatisticsService, times(2)).readResults(1);
+        verify(scoreStatisticsService, never()).readResults(2);
+    }
+
+    @Test
+    void pushesDeletedProductsByPreviouslySentResults() throws Exception {
+        ScoreStatisticsService scoreStatisticsService = mock(ScoreStatisticsService.class);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        LeaderboardService leaderboardService = new LeaderboardService(scoreStatisticsService, productRepository);
+
+        when(scoreStatisticsService.readResults(1)).thenReturn(
+                Collections.singletonList(new ProductResult(10, "Продукт", 1, 5, 0, 0)),
+                Collections.emptyList()
+        );
+        when(productRepository.findNominationIdsByIdIn(any())).thenReturn(Collections.emptyList());
+
+        leaderboardService.subscribe(1);
+
+        // Удалённый продукт не найти в базе данных, но его номинация известна по разосланным результатам.
+        leaderboardService.markProductsChanged(Collections.singletonList(10));
+        leaderboardService.push();
+
+        verify(scoreStatisticsService, times(2)).readResults(1);
+    }
+}
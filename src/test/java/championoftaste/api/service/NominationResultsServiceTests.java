@@ -0,0 +1,81 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.NominationResults;
+import championoftaste.api.repository.NominationRepository;
+import championoftaste.api.repository.NominationResultsRepository;
+import championoftaste.api.response.ProductResult;
+import championoftaste.api.statistics.ParameterScoreMatrix;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NominationResultsServiceTests {
+
+    @Test
+    void frozenRankingFollowsResultsTable() {
+        NominationResultsRepository nominationResultsRepository = mock(NominationResultsRepository.class);
+        ScoreStatisticsService scoreStatisticsService = mock(ScoreStatisticsService.class);
+        CompositeScoringService compositeScoringService = mock(CompositeScoringService.class);
+        ParameterScoreService parameterScoreService = mock(ParameterScoreService.class);
+        NominationVoterService nominationVoterService = mock(NominationVoterService.class);
+
+        List<ProductResult> results = new ArrayList<>();
+
+        for (int i = 1; i <= 5; i++) {
+            ProductResult result = new ProductResult(i, "Продукт " + i, 2, 20 - 2L * i, 0, 0);
+            result.setRank(i);
+            results.add(result);
+        }
+
+        when(scoreStatisticsService.readResults(7)).thenReturn(results);
+        when(compositeScoringService.readResults(7)).thenReturn(Collections.emptyList());
+        when(parameterScoreService.readMatrix(7)).thenReturn(ParameterScoreMatrix.of(Collections.emptyList()));
+        when(nominationVoterService.count(7)).thenReturn(42L);
+
+        NominationResultsService nominationResultsService = new NominationResultsService(
+                nominationResultsRepository,
+                mock(NominationRepository.class),
+                mock(NominationService.class),
+                mock(NominationGroupService.class),
+                scoreStatisticsService,
+                compositeScoringService,
+                parameterScoreService,
+                nominationVoterService,
+                new ObjectMapper()
+        );
+
+        nominationResultsService.freeze(7);
+
+        ArgumentCaptor<NominationResults> saved = ArgumentCaptor.forClass(NominationResults.class);
+        verify(nominationResultsRepository).save(saved.capture());
+        NominationResults frozen = saved.getValue();
+
+        assertEquals(7, frozen.getNominationId());
+        assertEquals(42L, frozen.getVotersCount());
+
+        JsonNode range = nominationResultsService.readRanking(frozen, 1, 2);
+
+        assertEquals(2, range.size());
+        assertEquals(Arrays.asList(2, 3), Arrays.asList(
+                range.get(0).path("productId").asInt(),
+                range.get(1).path("productId").asInt()
+        ));
+        assertEquals(3, range.get(1).path("rank").asInt());
+        assertEquals(9.0, nominationResultsService.readRanking(frozen, 1).path("average").asDouble(), 1e-9);
+        assertNull(nominationResultsService.readRanking(frozen, 6));
+    }
+}
@@ -0,0 +1,79 @@
+package championoftaste.api.service;
+
+import championoftaste.api.TestCatalog;
+import championoftaste.api.model.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Import(TestCatalog.class)
+class ParameterScoreServiceTests {
+
+    @Autowired
+    private ParameterScoreService parameterScoreService;
+
+    @Autowired
+    private TestCatalog catalog;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createAllBatchesExpertSubmission() {
+        Producer producer = catalog.producer("Производитель");
+        Nomination nomination = catalog.nomination("Номинация", null);
+
+        List<Product> products = new ArrayList<>();
+        List<Parameter> parameters = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            products.add(catalog.product("Продукт " + i, producer, nomination));
+            parameters.add(catalog.parameter("Критерий " + i, nomination));
+        }
+
+        User expert = catalog.expert();
+
+        // Оценка каждого критерия каждого продукта: 10 x 10 = 100 оценок.
+        List<ParameterScore> parameterScores = new ArrayList<>();
+
+        for (Product product : products) {
+            for (Parameter parameter : parameters) {
+                parameterScores.add(new ParameterScore((short) 5, product, parameter, expert));
+            }
+        }
+
+        entityManager.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        parameterScoreService.createAll(parameterScores);
+
+        // 1 проверка повторов + 2 запроса к последовательности (по 50 id) + 2 пачки вставок по 50 записей.
+        assertEquals(100, statistics.getEntityInsertCount());
+        assertTrue(
+                statistics.getPrepareStatementCount() <= 5,
+                "Слишком много SQL-запросов: " + statistics.getPrepareStatementCount()
+        );
+    }
+}
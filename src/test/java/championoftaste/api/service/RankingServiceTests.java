@@ -0,0 +1,54 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.Product;
+import championoftaste.api.model.Score;
+import championoftaste.api.repository.ScoreStatisticsRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RankingServiceTests {
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void scoreCommittedAroundRebuildIsNotCountedTwice() {
+        ScoreStatisticsRepository scoreStatisticsRepository = mock(ScoreStatisticsRepository.class);
+        RankingService rankingService = new RankingService(scoreStatisticsRepository);
+
+        // Статистика, по которой перестраивается рейтинг, уже учитывает новую оценку.
+        List<Object[]> rows = Collections.singletonList(new Object[]{10, 1, 1L, 5L});
+        when(scoreStatisticsRepository.findAllRankings()).thenReturn(rows);
+        when(scoreStatisticsRepository.findRankingsByProductIdIn(any())).thenReturn(rows);
+
+        Product product = new Product();
+        product.setId(10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        rankingService.add(Collections.singletonList(new Score((short) 5, product, null, false)));
+
+        rankingService.rebuild();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        assertEquals(1, rankingService.read(1, 10).getVotesCount());
+    }
+}
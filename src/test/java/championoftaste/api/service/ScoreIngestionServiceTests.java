@@ -0,0 +1,117 @@
+package championoftaste.api.service;
+
+import championoftaste.api.SubmissionStatus;
+import championoftaste.api.UserIdentity;
+import championoftaste.api.UserRole;
+import championoftaste.api.ingestion.ScoreJournal;
+import championoftaste.api.model.Product;
+import championoftaste.api.repository.ParameterRepository;
+import championoftaste.api.repository.ParameterScoreRepository;
+import championoftaste.api.repository.ProductRepository;
+import championoftaste.api.repository.ScoreRepository;
+import championoftaste.api.request.ScoreRequest;
+import championoftaste.config.IngestionConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ScoreIngestionServiceTests {
+
+    private ScoreService scoreService;
+    private ProductRepository productRepository;
+    private IngestionConfig ingestionConfig;
+    private ScoreIngestionService scoreIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        scoreService = mock(ScoreService.class);
+        productRepository = mock(ProductRepository.class);
+
+        UserService userService = mock(UserService.class);
+        when(userService.loadAuthorizedIdentity()).thenReturn(new UserIdentity(1, "user", UserRole.ROLE_CONSUMER));
+
+        ingestionConfig = new IngestionConfig();
+        scoreIngestionService = new ScoreIngestionService(
+                mock(ScoreJournal.class),
+                scoreService,
+                mock(ParameterScoreService.class),
+                productRepository,
+                mock(ParameterRepository.class),
+                mock(ScoreRepository.class),
+                mock(ParameterScoreRepository.class),
+                userService,
+                ingestionConfig
+        );
+    }
+
+    @Test
+    void stopsDrainingWhileDatabaseIsUnavailableAndLimitsQueue() {
+        ingestionConfig.setMaxQueueSize(3);
+        doThrow(new CannotCreateTransactionException("database is down")).when(scoreService).createAll(any());
+
+        List<String> ids = new ArrayList<>();
+
+        for (int i = 1; i <= 3; i++) {
+            ids.add(scoreIngestionService.submitScores(request(i)).getId());
+        }
+
+        // Очередь заполнена: новые отправки отклоняются, а не копятся в памяти.
+        ResponseStatusException e = assertThrows(
+                ResponseStatusException.class,
+                () -> scoreIngestionService.submitScores(request(4))
+        );
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+
+        scoreIngestionService.drain();
+
+        // Одна попытка записать пачку и одна попытка записать первую отправку, остальные возвращаются в очередь.
+        verify(scoreService, times(2)).createAll(any());
+
+        for (String id : ids) {
+            assertEquals(SubmissionStatus.PENDING, scoreIngestionService.readStatus(id).getStatus());
+        }
+
+        // После восстановления базы данных отправки из очереди записываются.
+        doNothing().when(scoreService).createAll(any());
+        scoreIngestionService.drain();
+
+        for (String id : ids) {
+            assertEquals(SubmissionStatus.ACCEPTED, scoreIngestionService.readStatus(id).getStatus());
+        }
+    }
+
+    @Test
+    void rejectsSubmissionsForFinishedNominations() {
+        when(productRepository.findFinishedIdsByIdIn(any())).thenReturn(Collections.singletonList(2));
+
+        String open = scoreIngestionService.submitScores(request(1)).getId();
+        String finished = scoreIngestionService.submitScores(request(2)).getId();
+
+        scoreIngestionService.drain();
+
+        // Результаты завершённой номинации заморожены, поэтому поздняя оценка отклоняется, а не теряется молча.
+        assertEquals(SubmissionStatus.ACCEPTED, scoreIngestionService.readStatus(open).getStatus());
+        assertEquals(SubmissionStatus.REJECTED, scoreIngestionService.readStatus(finished).getStatus());
+        verify(scoreService, times(1)).createAll(argThat(scores -> scores.size() == 1));
+    }
+
+    private static List<ScoreRequest> request(int productId) {
+        Product product = new Product();
+        product.setId(productId);
+
+        return Collections.singletonList(new ScoreRequest((short) 5, product));
+    }
+}
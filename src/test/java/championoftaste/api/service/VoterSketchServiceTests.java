@@ -0,0 +1,53 @@
+package championoftaste.api.service;
+
+import championoftaste.api.model.Product;
+import championoftaste.api.model.Score;
+import championoftaste.api.model.User;
+import championoftaste.api.repository.NominationVoterRepository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VoterSketchServiceTests {
+
+    @Test
+    void votersAddedDuringRecountAreKept() {
+        NominationVoterRepository nominationVoterRepository = mock(NominationVoterRepository.class);
+        VoterSketchService voterSketchService = new VoterSketchService(nominationVoterRepository);
+
+        List<Object[]> productIds = Collections.singletonList(new Object[]{10, 1, 2});
+        when(nominationVoterRepository.findAllProductNominationAndGroupIds()).thenReturn(productIds);
+        when(nominationVoterRepository.findAllNominationIdsAndUserIds()).thenReturn(
+                Collections.singletonList(new Object[]{1, 100})
+        );
+
+        voterSketchService.recount();
+
+        // Пользователь голосует, пока пересчёт читает таблицу проголосовавших (его голоса в ней ещё нет).
+        when(nominationVoterRepository.findAllNominationIdsAndUserIds()).thenAnswer(invocation -> {
+            voterSketchService.add(Collections.singletonList(score(10, 200)));
+            return Collections.singletonList(new Object[]{1, 100});
+        });
+
+        voterSketchService.recount();
+
+        assertEquals(2, voterSketchService.estimate(1));
+        assertEquals(2, voterSketchService.estimateByGroup(2));
+    }
+
+    private static Score score(int productId, int userId) {
+        Product product = new Product();
+        product.setId(productId);
+
+        User user = new User();
+        user.setId(userId);
+
+        return new Score((short) 5, product, user, false);
+    }
+}
@@ -0,0 +1,29 @@
+package championoftaste.api.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParameterScoreMatrixTests {
+
+    @Test
+    void fillsCellsRowByRow() {
+        ParameterScoreMatrix matrix = ParameterScoreMatrix.of(Arrays.asList(
+                new Object[]{1, "Продукт 1", 10, "Вкус", 2L, 10L, 52L},     // 4 и 6
+                new Object[]{1, "Продукт 1", 20, "Запах", 0L, 0L, 0L},
+                new Object[]{2, "Продукт 2", 10, "Вкус", 1L, 7L, 49L},
+                new Object[]{2, "Продукт 2", 20, "Запах", 3L, 15L, 75L}     // 5, 5 и 5
+        ));
+
+        assertArrayEquals(new int[]{1, 2}, matrix.getProductIds());
+        assertArrayEquals(new int[]{10, 20}, matrix.getParameterIds());
+        assertArrayEquals(new String[]{"Вкус", "Запах"}, matrix.getParameterNames());
+        assertArrayEquals(new long[]{2, 0, 1, 3}, matrix.getCounts());
+        assertArrayEquals(new double[]{5.0, 0.0, 7.0, 5.0}, matrix.getMeans(), 1e-9);
+        assertEquals(1.0, matrix.getDeviations()[0], 1e-9);
+        assertEquals(0.0, matrix.getDeviations()[3], 1e-9);
+    }
+}
@@ -0,0 +1,48 @@
+package championoftaste.api.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductScoresTests {
+
+    @Test
+    void combinesWeightedComponents() {
+        ProductScores scores = new ProductScores();
+        scores.addScore(8, true, 1);
+        scores.addScore(6, true, 1);
+        scores.addScore(4, false, 1);
+        scores.addParameterScores(1, 2, 18);    // среднее 9
+        scores.addParameterScores(2, 1, 3);     // среднее 3
+
+        Map<Integer, Double> weights = new HashMap<>();
+        weights.put(1, 2.0);
+        weights.put(2, 1.0);
+
+        ProductScores.Result result = scores.calculate(weights, 2.0, 1.0, 1.0);
+
+        assertEquals(7.0, result.getExpertAverage(), 1e-9);
+        assertEquals(4.0, result.getConsumerAverage(), 1e-9);
+        assertEquals(7.0, result.getParameterAverage(), 1e-9);     // (2 * 9 + 1 * 3) / 3
+        assertEquals(6.25, result.getComposite(), 1e-9);            // (2 * 7 + 1 * 4 + 1 * 7) / 4
+    }
+
+    @Test
+    void skipsComponentsWithoutScores() {
+        ProductScores scores = new ProductScores();
+        scores.addScore(5, false, 1);
+        scores.addScore(9, true, 1);
+        scores.addScore(9, true, -1);
+        scores.addParameterScores(1, 1, 10);
+
+        ProductScores.Result result = scores.calculate(new HashMap<>(), 3.0, 1.0, 1.0);
+
+        assertNull(result.getExpertAverage());
+        assertNull(result.getParameterAverage());   // вес критерия неизвестен (критерий удалён)
+        assertEquals(5.0, result.getComposite(), 1e-9);
+    }
+}
@@ -0,0 +1,85 @@
+package championoftaste.api.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RankingTreeTests {
+
+    @Test
+    void ordersByAverageThenVotesCountThenProductId() {
+        RankingTree tree = new RankingTree();
+        tree.put(1, 2, 8);      // 4.0
+        tree.put(2, 4, 16);     // 4.0, больше оценок
+        tree.put(3, 1, 5);      // 5.0
+        tree.put(4, 0, 0);      // без оценок
+        tree.put(5, 2, 8);      // 4.0
+
+        List<RankingTree.Entry> entries = tree.range(0, 10);
+
+        assertEquals(Arrays.asList(3, 2, 1, 5, 4), productIds(entries));
+        assertEquals(Arrays.asList(1, 2, 2, 2, 5), ranks(entries));
+        assertEquals(2, tree.get(5).getRank());
+        assertEquals(3, tree.get(5).getPosition());
+        assertNull(tree.get(6));
+    }
+
+    @Test
+    void matchesSortedResultsAfterRandomUpdates() {
+        RankingTree tree = new RankingTree();
+        Map<Integer, long[]> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5000; i++) {
+            int productId = random.nextInt(300);
+
+            if (random.nextInt(10) == 0) {
+                tree.remove(productId);
+                expected.remove(productId);
+            } else {
+                int score = 1 + random.nextInt(10);
+                tree.add(productId, 1, score);
+                long[] current = expected.computeIfAbsent(productId, id -> new long[2]);
+                current[0]++;
+                current[1] += score;
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(expected.keySet());
+        sorted.sort(Comparator
+                .comparingDouble((Integer id) -> (double) expected.get(id)[1] / expected.get(id)[0]).reversed()
+                .thenComparing(Comparator.comparingLong((Integer id) -> expected.get(id)[0]).reversed())
+                .thenComparing(Comparator.naturalOrder()));
+
+        assertEquals(sorted.size(), tree.size());
+        assertEquals(sorted, productIds(tree.range(0, sorted.size())));
+        assertEquals(sorted.subList(100, 120), productIds(tree.range(100, 20)));
+
+        for (int position = 0; position < sorted.size(); position++) {
+            assertEquals(position, tree.get(sorted.get(position)).getPosition());
+        }
+    }
+
+    private static List<Integer> productIds(List<RankingTree.Entry> entries) {
+        List<Integer> productIds = new ArrayList<>();
+
+        for (RankingTree.Entry entry : entries) {
+            productIds.add(entry.getProductId());
+        }
+
+        return productIds;
+    }
+
+    private static List<Integer> ranks(List<RankingTree.Entry> entries) {
+        List<Integer> ranks = new ArrayList<>();
+
+        for (RankingTree.Entry entry : entries) {
+            ranks.add(entry.getRank());
+        }
+
+        return ranks;
+    }
+}
@@ -0,0 +1,94 @@
+package championoftaste.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import javax.servlet.ServletException;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы фильтра JwtTokenVerifier на один запрос: с парсером, создаваемым при каждом запросе
+ * (как было раньше), и с общим парсером и кэшем проверенных токенов.
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=championoftaste.jwt.JwtTokenVerifierBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenVerifierBenchmark {
+
+    private SecretKey secretKey;
+    private JwtConfig jwtConfig;
+    private String authorizationHeader;
+
+    private JwtTokenVerifier cachedVerifier;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor("securesecuresecuresecuresecuresecuresecuresecure".getBytes());
+
+        jwtConfig = new JwtConfig();
+        jwtConfig.setTokenPrefix("Bearer ");
+
+        String token = Jwts.builder()
+                .setSubject("user@example.com")
+                .claim(JwtClaims.AUTHORITIES, Collections.singletonList(new SimpleGrantedAuthority("ROLE_CONSUMER")))
+                .claim(JwtClaims.USER_ID, 1)
+                .claim(JwtClaims.ROLE, "ROLE_CONSUMER")
+                .claim(JwtClaims.VERSION, JwtClaims.CURRENT_VERSION)
+                .setExpiration(Date.valueOf(LocalDate.now().plusDays(1)))
+                .signWith(secretKey)
+                .compact();
+
+        authorizationHeader = jwtConfig.getTokenPrefix() + token;
+
+        cachedVerifier = new JwtTokenVerifier(Jwts.parserBuilder().setSigningKey(secretKey).build(), jwtConfig);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse parserPerRequest() throws ServletException, IOException {
+        // Новый экземпляр фильтра - это новый парсер и пустой кэш, т.е. поведение до оптимизации. Парсер создаётся
+        // в измеряемом методе: раньше его создание входило в обработку каждого запроса.
+        return filter(new JwtTokenVerifier(Jwts.parserBuilder().setSigningKey(secretKey).build(), jwtConfig));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse cachedToken() throws ServletException, IOException {
+        return filter(cachedVerifier);
+    }
+
+    private MockHttpServletResponse filter(JwtTokenVerifier verifier) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/nominations");
+        request.addHeader(jwtConfig.getAuthorizationHeader(), authorizationHeader);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        verifier.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtTokenVerifierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package championoftaste.validators;
+
+import championoftaste.api.UserRole;
+import championoftaste.api.model.User;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение стоимости одной проверки полей: создание ValidatorFactory при каждом вызове (как было раньше)
+ * и общий Validator из FieldsValidator.
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=championoftaste.validators.FieldsValidatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldsValidatorBenchmark {
+
+    private final FieldsValidator<User> fieldsValidator = new FieldsValidator<>();
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User(
+                UserRole.ROLE_CONSUMER,
+                "Иван",
+                "Иванов",
+                null,
+                (short) 1,
+                (short) 30,
+                "+79001234567",
+                "ivanov@example.com",
+                null,
+                "password",
+                null
+        );
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> factoryPerCall() {
+        return Validation.buildDefaultValidatorFactory().getValidator().validate(user);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> sharedValidator() {
+        return fieldsValidator.validate(user);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FieldsValidatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}